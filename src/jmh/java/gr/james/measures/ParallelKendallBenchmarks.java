@@ -0,0 +1,64 @@
+package gr.james.measures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scaling benchmarks of the parallel {@link Kendall} constructors over the number of threads of the pool.
+ * <p>
+ * The inputs are synthetic rankings with ties where the second ranking is a noisy copy of the first. The sequential
+ * baseline of the speedup is {@link RankBenchmarks}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class ParallelKendallBenchmarks {
+    @Param({"1000000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int threads;
+
+    private int[] aInt;
+    private int[] bInt;
+    private double[] aDouble;
+    private double[] bDouble;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.aInt = new int[this.size];
+        this.bInt = new int[this.size];
+        this.aDouble = new double[this.size];
+        this.bDouble = new double[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.aInt[i] = random.nextInt(this.size / 2);
+            this.bInt[i] = this.aInt[i] + random.nextInt(this.size / 10);
+            this.aDouble[i] = this.aInt[i];
+            this.bDouble[i] = this.bInt[i];
+        }
+        this.pool = new ForkJoinPool(this.threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        this.pool.shutdown();
+    }
+
+    @Benchmark
+    public double parallelInt() {
+        return new Kendall(this.aInt, this.bInt, this.pool).value();
+    }
+
+    @Benchmark
+    public double parallelDouble() {
+        return new Kendall(this.aDouble, this.bDouble, this.pool).value();
+    }
+}
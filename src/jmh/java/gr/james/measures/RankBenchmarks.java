@@ -0,0 +1,108 @@
+package gr.james.measures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of {@link Kendall}, {@link Spearman} and the {@link Pearson} population form.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankBenchmarks {
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    /**
+     * The expected fraction of elements that are tied with another element.
+     */
+    @Param({"0.0", "0.5"})
+    public double ties;
+
+    private int[] aInt;
+    private int[] bInt;
+    private double[] aDouble;
+    private double[] bDouble;
+    private List<Integer> aList;
+    private List<Integer> bList;
+    private List<Integer> aPermutation;
+    private List<Integer> bPermutation;
+    private Set<Integer> population;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        // Drawing from a smaller range produces the requested density of ties
+        final int range = this.ties == 0 ? Integer.MAX_VALUE : Math.max(1, (int) (this.size * (1 - this.ties)));
+        this.aInt = new int[this.size];
+        this.bInt = new int[this.size];
+        this.aDouble = new double[this.size];
+        this.bDouble = new double[this.size];
+        this.aList = new ArrayList<>(this.size);
+        this.bList = new ArrayList<>(this.size);
+        this.population = new HashSet<>();
+        for (int i = 0; i < this.size; i++) {
+            this.aInt[i] = random.nextInt(range);
+            this.bInt[i] = random.nextInt(range);
+            this.aDouble[i] = this.aInt[i];
+            this.bDouble[i] = this.bInt[i];
+            this.aList.add(this.aInt[i]);
+            this.bList.add(this.bInt[i]);
+            this.population.add(i);
+        }
+        this.aPermutation = new ArrayList<>(this.population);
+        this.bPermutation = new ArrayList<>(this.population);
+        Collections.shuffle(this.aPermutation, random);
+        Collections.shuffle(this.bPermutation, random);
+    }
+
+    @Benchmark
+    public double kendallList() {
+        return new Kendall(this.aList, this.bList).value();
+    }
+
+    @Benchmark
+    public double kendallDouble() {
+        return new Kendall(this.aDouble, this.bDouble).value();
+    }
+
+    @Benchmark
+    public double kendallInt() {
+        return new Kendall(this.aInt, this.bInt).value();
+    }
+
+    @Benchmark
+    public double spearmanList() {
+        return new Spearman(this.aPermutation, this.bPermutation).value();
+    }
+
+    @Benchmark
+    public double spearmanDouble() {
+        return new Spearman(this.aDouble, this.bDouble).value();
+    }
+
+    @Benchmark
+    public double approximateKendall() {
+        return new ApproximateKendall(this.aDouble, this.bDouble, 0.02, 0).value();
+    }
+
+    @Benchmark
+    public double approximateSpearman() {
+        return new ApproximateSpearman(this.aDouble, this.bDouble, 0.02, 0).value();
+    }
+
+    @Benchmark
+    public double pearsonPopulation() {
+        return new Pearson(this.population, x -> this.aDouble[x], x -> this.bDouble[x]).value();
+    }
+}
@@ -0,0 +1,299 @@
+package gr.james.measures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the set theoretic measures over every supported set representation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SetBenchmarks {
+    /**
+     * The size of the larger set.
+     */
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    /**
+     * The size of the smaller set relative to the larger set.
+     */
+    @Param({"1.0", "0.01"})
+    public double ratio;
+
+    /**
+     * The fraction of the smaller set that is also in the larger set.
+     */
+    @Param({"0.1", "0.9"})
+    public double overlap;
+
+    private Set<Integer> a;
+    private Set<Integer> b;
+    private Set<Integer> world;
+    private Contingency contingency;
+    private DenseIntSet aDense;
+    private DenseIntSet bDense;
+    private SortedIntSet aSorted;
+    private SortedIntSet bSorted;
+    private SortedLongSet aSortedLong;
+    private SortedLongSet bSortedLong;
+    private CompressedIntSet aCompressed;
+    private CompressedIntSet bCompressed;
+    private MinHash aMinHash;
+    private MinHash bMinHash;
+    private int[] aLabels;
+    private int[] bLabels;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        final int universe = 4 * this.size;
+        final int[] permutation = new int[universe];
+        for (int i = 0; i < universe; i++) {
+            permutation[i] = i;
+        }
+        for (int i = universe - 1; i > 0; i--) {
+            final int j = random.nextInt(i + 1);
+            final int t = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = t;
+        }
+        // The larger set takes the first size elements of the permutation and the smaller set takes its common
+        // elements from the start of the larger set and the rest from past its end
+        final int small = Math.max(1, (int) (this.size * this.ratio));
+        final int common = (int) (small * this.overlap);
+        final int[] aArray = new int[this.size];
+        final int[] bArray = new int[small];
+        System.arraycopy(permutation, 0, aArray, 0, this.size);
+        System.arraycopy(permutation, 0, bArray, 0, common);
+        System.arraycopy(permutation, this.size, bArray, common, small - common);
+
+        this.a = new HashSet<>();
+        this.b = new HashSet<>();
+        this.world = new HashSet<>();
+        this.aDense = new DenseIntSet(universe);
+        this.bDense = new DenseIntSet(universe);
+        this.aCompressed = new CompressedIntSet(aArray);
+        this.bCompressed = new CompressedIntSet(bArray);
+        this.aSorted = new SortedIntSet(aArray);
+        this.bSorted = new SortedIntSet(bArray);
+        final long[] aLong = new long[aArray.length];
+        final long[] bLong = new long[bArray.length];
+        for (int i = 0; i < aArray.length; i++) {
+            this.a.add(aArray[i]);
+            this.aDense.add(aArray[i]);
+            aLong[i] = aArray[i];
+        }
+        for (int i = 0; i < bArray.length; i++) {
+            this.b.add(bArray[i]);
+            this.bDense.add(bArray[i]);
+            bLong[i] = bArray[i];
+        }
+        // Both sets are within the first 2 size elements of the permutation, so the boxed world does not need the
+        // whole universe of the dense sets
+        for (int i = 0; i < 2 * this.size; i++) {
+            this.world.add(permutation[i]);
+        }
+        this.aSortedLong = new SortedLongSet(aLong);
+        this.bSortedLong = new SortedLongSet(bLong);
+        this.contingency = new Contingency(this.a, this.b, this.world);
+        this.aMinHash = new MinHash(this.a, 128, 0);
+        this.bMinHash = new MinHash(this.b, 128, 0);
+        // Labelings of the larger set into 100 classes, where the overlap is the fraction of agreeing labels
+        this.aLabels = new int[this.size];
+        this.bLabels = new int[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.aLabels[i] = random.nextInt(100);
+            this.bLabels[i] = random.nextDouble() < this.overlap ? this.aLabels[i] : random.nextInt(100);
+        }
+    }
+
+    @Benchmark
+    public double jaccardSet() {
+        return new Jaccard(this.a, this.b).value();
+    }
+
+    @Benchmark
+    public double jaccardContingency() {
+        return new Jaccard(this.contingency).value();
+    }
+
+    @Benchmark
+    public double jaccardDense() {
+        return new Jaccard(this.aDense, this.bDense).value();
+    }
+
+    @Benchmark
+    public double jaccardSorted() {
+        return new Jaccard(this.aSorted, this.bSorted).value();
+    }
+
+    @Benchmark
+    public double jaccardSortedLong() {
+        return new Jaccard(this.aSortedLong, this.bSortedLong).value();
+    }
+
+    @Benchmark
+    public double jaccardCompressed() {
+        return new Jaccard(this.aCompressed, this.bCompressed).value();
+    }
+
+    @Benchmark
+    public double jaccardMinHash() {
+        return new Jaccard(this.aMinHash, this.bMinHash).value();
+    }
+
+    @Benchmark
+    public double sorensenSet() {
+        return new Sorensen(this.a, this.b).value();
+    }
+
+    @Benchmark
+    public double sorensenSorted() {
+        return new Sorensen(this.aSorted, this.bSorted).value();
+    }
+
+    @Benchmark
+    public double sorensenDense() {
+        return new Sorensen(this.aDense, this.bDense).value();
+    }
+
+    @Benchmark
+    public double sorensenSortedLong() {
+        return new Sorensen(this.aSortedLong, this.bSortedLong).value();
+    }
+
+    @Benchmark
+    public double sorensenCompressed() {
+        return new Sorensen(this.aCompressed, this.bCompressed).value();
+    }
+
+    @Benchmark
+    public double sorensenContingency() {
+        return new Sorensen(this.contingency).value();
+    }
+
+    @Benchmark
+    public double overlapSet() {
+        return new Overlap(this.a, this.b).value();
+    }
+
+    @Benchmark
+    public double overlapSorted() {
+        return new Overlap(this.aSorted, this.bSorted).value();
+    }
+
+    @Benchmark
+    public double overlapDense() {
+        return new Overlap(this.aDense, this.bDense).value();
+    }
+
+    @Benchmark
+    public double overlapSortedLong() {
+        return new Overlap(this.aSortedLong, this.bSortedLong).value();
+    }
+
+    @Benchmark
+    public double overlapCompressed() {
+        return new Overlap(this.aCompressed, this.bCompressed).value();
+    }
+
+    @Benchmark
+    public double overlapContingency() {
+        return new Overlap(this.contingency).value();
+    }
+
+    @Benchmark
+    public double cosineSet() {
+        return new Cosine(this.a, this.b).value();
+    }
+
+    @Benchmark
+    public double cosineDense() {
+        return new Cosine(this.aDense, this.bDense).value();
+    }
+
+    @Benchmark
+    public double cosineSorted() {
+        return new Cosine(this.aSorted, this.bSorted).value();
+    }
+
+    @Benchmark
+    public double cosineSortedLong() {
+        return new Cosine(this.aSortedLong, this.bSortedLong).value();
+    }
+
+    @Benchmark
+    public double cosineCompressed() {
+        return new Cosine(this.aCompressed, this.bCompressed).value();
+    }
+
+    @Benchmark
+    public double cosineContingency() {
+        return new Cosine(this.contingency).value();
+    }
+
+    @Benchmark
+    public double pearsonSet() {
+        return new Pearson(this.a, this.b, this.world).value();
+    }
+
+    @Benchmark
+    public double pearsonDense() {
+        return new Pearson(this.aDense, this.bDense).value();
+    }
+
+    @Benchmark
+    public double pearsonContingency() {
+        return new Pearson(this.contingency).value();
+    }
+
+    @Benchmark
+    public double simpleMatchingSet() {
+        return new SimpleMatching(this.a, this.b, this.world).value();
+    }
+
+    @Benchmark
+    public double simpleMatchingDense() {
+        return new SimpleMatching(this.aDense, this.bDense).value();
+    }
+
+    @Benchmark
+    public double simpleMatchingContingency() {
+        return new SimpleMatching(this.contingency).value();
+    }
+
+    @Benchmark
+    public double mutualInformationSet() {
+        return new MutualInformation(this.a, this.b, this.world).mutualInformation();
+    }
+
+    @Benchmark
+    public double mutualInformationDense() {
+        return new MutualInformation(this.aDense, this.bDense).mutualInformation();
+    }
+
+    @Benchmark
+    public double mutualInformationContingency() {
+        return new MutualInformation(this.contingency).mutualInformation();
+    }
+
+    @Benchmark
+    public double mutualInformationLabels() {
+        return new MutualInformation(this.aLabels, this.bLabels).mutualInformation();
+    }
+
+    @Benchmark
+    public double mutualInformationLabelsParallel() {
+        return new MutualInformation(this.aLabels, this.bLabels, ForkJoinPool.commonPool()).mutualInformation();
+    }
+}
@@ -0,0 +1,172 @@
+package gr.james.measures;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the vector forms of {@link Pearson} and {@link Cosine}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorBenchmarks {
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    /**
+     * The fraction of components that are non-zero in the sparse inputs.
+     */
+    @Param({"0.01"})
+    public double density;
+
+    private double[] a;
+    private double[] b;
+    private float[] aFloat;
+    private float[] bFloat;
+    private List<Double> aList;
+    private List<Double> bList;
+    private DoubleBuffer aBuffer;
+    private DoubleBuffer bBuffer;
+    private FloatBuffer aFloatBuffer;
+    private FloatBuffer bFloatBuffer;
+    private SparseVector aSparse;
+    private SparseVector bSparse;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(0);
+        this.a = new double[this.size];
+        this.b = new double[this.size];
+        this.aFloat = new float[this.size];
+        this.bFloat = new float[this.size];
+        this.aList = new ArrayList<>(this.size);
+        this.bList = new ArrayList<>(this.size);
+        for (int i = 0; i < this.size; i++) {
+            this.a[i] = random.nextGaussian();
+            this.b[i] = this.a[i] + random.nextGaussian();
+            this.aFloat[i] = (float) this.a[i];
+            this.bFloat[i] = (float) this.b[i];
+            this.aList.add(this.a[i]);
+            this.bList.add(this.b[i]);
+        }
+        this.aBuffer = DoubleBuffer.wrap(this.a);
+        this.bBuffer = DoubleBuffer.allocate(this.size).put(this.b);
+        this.bBuffer.flip();
+        this.aFloatBuffer = FloatBuffer.wrap(this.aFloat);
+        this.bFloatBuffer = FloatBuffer.allocate(this.size).put(this.bFloat);
+        this.bFloatBuffer.flip();
+        this.aSparse = sparse(random, this.size, this.density);
+        this.bSparse = sparse(random, this.size, this.density);
+    }
+
+    private static SparseVector sparse(Random random, int size, double density) {
+        final int stored = Math.max(1, (int) (size * density));
+        final int[] indices = new int[stored];
+        final double[] values = new double[stored];
+        final int step = size / stored;
+        for (int i = 0; i < stored; i++) {
+            indices[i] = i * step + random.nextInt(step);
+            values[i] = random.nextGaussian();
+        }
+        return new SparseVector(size, indices, values);
+    }
+
+    @Benchmark
+    public double pearsonIterable() {
+        return new Pearson(this.aList, this.bList).value();
+    }
+
+    @Benchmark
+    public double pearsonIterator() {
+        return new Pearson(this.aList.iterator(), this.bList.iterator()).value();
+    }
+
+    @Benchmark
+    public double pearsonArray() {
+        return new Pearson(this.a, this.b).value();
+    }
+
+    @Benchmark
+    public double pearsonFloat() {
+        return new Pearson(this.aFloat, this.bFloat).value();
+    }
+
+    @Benchmark
+    public double pearsonFloatSlice() {
+        return new Pearson(this.aFloat, 0, this.bFloat, 0, this.size).value();
+    }
+
+    @Benchmark
+    public double pearsonFloatBuffer() {
+        return new Pearson(this.aFloatBuffer, this.bFloatBuffer).value();
+    }
+
+    @Benchmark
+    public double pearsonSlice() {
+        return new Pearson(this.a, 0, this.b, 0, this.size).value();
+    }
+
+    @Benchmark
+    public double pearsonBuffer() {
+        return new Pearson(this.aBuffer, this.bBuffer).value();
+    }
+
+    @Benchmark
+    public double pearsonSparse() {
+        return new Pearson(this.aSparse, this.bSparse).value();
+    }
+
+    @Benchmark
+    public double cosineList() {
+        return new Cosine(this.aList, this.bList).value();
+    }
+
+    @Benchmark
+    public double cosineIterator() {
+        return new Cosine(this.aList.iterator(), this.bList.iterator()).value();
+    }
+
+    @Benchmark
+    public double cosineArray() {
+        return new Cosine(this.a, this.b).value();
+    }
+
+    @Benchmark
+    public double cosineFloat() {
+        return new Cosine(this.aFloat, this.bFloat).value();
+    }
+
+    @Benchmark
+    public double cosineFloatSlice() {
+        return new Cosine(this.aFloat, 0, this.bFloat, 0, this.size).value();
+    }
+
+    @Benchmark
+    public double cosineFloatBuffer() {
+        return new Cosine(this.aFloatBuffer, this.bFloatBuffer).value();
+    }
+
+    @Benchmark
+    public double cosineSlice() {
+        return new Cosine(this.a, 0, this.b, 0, this.size).value();
+    }
+
+    @Benchmark
+    public double cosineBuffer() {
+        return new Cosine(this.aBuffer, this.bBuffer).value();
+    }
+
+    @Benchmark
+    public double cosineSparse() {
+        return new Cosine(this.aSparse, this.bSparse).value();
+    }
+}
@@ -0,0 +1,148 @@
+package gr.james.measures;
+
+import java.util.SplittableRandom;
+
+/**
+ * Sampling estimator of the Kendall rank correlation coefficient with a confidence interval.
+ * <p>
+ * Pairs of distinct elements are sampled uniformly with replacement and the tau-b variant is estimated as the ratio
+ * of the mean product of the signs of the pairs to the geometric mean of the fractions of pairs that are not tied in
+ * each input. The 95% confidence interval is derived with the delta method from the sample covariance of these three
+ * means and sampling stops as soon as the interval is narrower than the requested width. The number of samples
+ * depends only on the width and the correlation and not on the size of the inputs, for example about {@code 150000}
+ * samples for a width of {@code 0.01}.
+ * <p>
+ * When the number of samples reaches the number of elements, sampling is no longer cheaper than the exact
+ * {@code O(n log n)} algorithm and the exact value of {@link Kendall#Kendall(double[], double[])} is computed
+ * instead, with an interval of zero width. The exact value is also computed as soon as one of the inputs has no
+ * untied pairs in the samples, for example when it is constant. Elements are compared using
+ * {@link Double#compare(double, double)}.
+ */
+public class ApproximateKendall {
+    /**
+     * The standard normal quantile of the 95% two-sided confidence interval.
+     */
+    static final double Z = 1.959963984540054;
+    /**
+     * The number of pairs sampled between two evaluations of the interval.
+     */
+    static final int BATCH = 1024;
+
+    private final double value;
+    private final double lower;
+    private final double upper;
+    private final long samples;
+
+    /**
+     * Create a new {@link ApproximateKendall} from the given {@code double} arrays.
+     *
+     * @param a     the one vector
+     * @param b     the other vector
+     * @param width the maximum width of the 95% confidence interval
+     * @param seed  the seed of the random sampling
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     * @throws IllegalArgumentException if {@code width} is not positive
+     */
+    public ApproximateKendall(double[] a, double[] b, double width, long seed) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        if (!(width > 0)) {
+            throw new IllegalArgumentException("Width must be positive");
+        }
+        final int n = a.length;
+        final SplittableRandom random = new SplittableRandom(seed);
+        // Sums of the sign product and of the indicators of the pair not being tied in a, in b and in both
+        long sumX = 0;
+        long sumU = 0;
+        long sumV = 0;
+        long sumUV = 0;
+        long m = 0;
+        while (m + BATCH <= n) {
+            for (int k = 0; k < BATCH; k++) {
+                final int i = random.nextInt(n);
+                int j = random.nextInt(n - 1);
+                if (j >= i) {
+                    j++;
+                }
+                final int signA = Integer.signum(Double.compare(a[i], a[j]));
+                final int signB = Integer.signum(Double.compare(b[i], b[j]));
+                sumX += signA * signB;
+                sumU += signA * signA;
+                sumV += signB * signB;
+                sumUV += signA * signA * signB * signB;
+            }
+            m += BATCH;
+            final double mx = (double) sumX / m;
+            final double mu = (double) sumU / m;
+            final double mv = (double) sumV / m;
+            final double muv = (double) sumUV / m;
+            final double t = mx / Math.sqrt(mu * mv);
+            if (Double.isNaN(t)) {
+                // One of the inputs has no untied pairs in the samples, which more samples would rarely resolve
+                break;
+            }
+            // Gradient of mx / sqrt(mu * mv) and covariance of the indicators, using X * U = X and U * U = U
+            final double gx = 1 / Math.sqrt(mu * mv);
+            final double gu = -t / (2 * mu);
+            final double gv = -t / (2 * mv);
+            final double variance = gx * gx * (muv - mx * mx) + gu * gu * (mu - mu * mu) + gv * gv * (mv - mv * mv)
+                    + 2 * gx * gu * (mx - mx * mu) + 2 * gx * gv * (mx - mx * mv) + 2 * gu * gv * (muv - mu * mv);
+            final double half = Z * Math.sqrt(Math.max(variance, 0) / m);
+            if (2 * half <= width) {
+                this.value = t;
+                this.lower = Math.max(t - half, -1);
+                this.upper = Math.min(t + half, 1);
+                this.samples = m;
+                return;
+            }
+        }
+        this.value = new Kendall(a, b).value();
+        this.lower = this.value;
+        this.upper = this.value;
+        this.samples = (long) n * (n - 1) / 2;
+    }
+
+    /**
+     * Returns the estimate of the Kendall rank correlation coefficient of the inputs that this instance was created
+     * from.
+     *
+     * @return the estimate of the Kendall rank correlation coefficient of the inputs that this instance was created
+     * from
+     */
+    public double value() {
+        return this.value;
+    }
+
+    /**
+     * Returns the lower bound of the 95% confidence interval of {@link #value()}.
+     *
+     * @return the lower bound of the 95% confidence interval of {@link #value()}
+     */
+    public double lower() {
+        return this.lower;
+    }
+
+    /**
+     * Returns the upper bound of the 95% confidence interval of {@link #value()}.
+     *
+     * @return the upper bound of the 95% confidence interval of {@link #value()}
+     */
+    public double upper() {
+        return this.upper;
+    }
+
+    /**
+     * Returns the number of sampled pairs, or the number of all pairs if the exact value was computed.
+     *
+     * @return the number of sampled pairs, or the number of all pairs if the exact value was computed
+     */
+    public long samples() {
+        return this.samples;
+    }
+}
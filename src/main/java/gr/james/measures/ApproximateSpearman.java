@@ -0,0 +1,142 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Sampling estimator of Spearman's rank correlation coefficient with a confidence interval.
+ * <p>
+ * Rows are sampled uniformly without replacement and the estimate is the coefficient of
+ * {@link Spearman#Spearman(double[], double[])} on the sampled rows. The 95% confidence interval is derived from the
+ * Fisher transformation of the estimate with the Bonett-Wright standard error {@code sqrt((1 + r^2 / 2) / (m - 3))}.
+ * While the interval is wider than requested, the sample is grown to the size that the interval predicts, but at
+ * least by half, and the estimate is recomputed. The number of sampled rows depends only on the width and the
+ * correlation and not on the size of the inputs.
+ * <p>
+ * When the sample would include more than half of the rows, or when either input is constant in the sample, the exact
+ * value is computed instead, with an interval of zero width. Elements are compared using
+ * {@link Double#compare(double, double)}.
+ */
+public class ApproximateSpearman {
+    /**
+     * The number of rows of the first sample.
+     */
+    static final int INITIAL_SAMPLES = 1024;
+
+    private final double value;
+    private final double lower;
+    private final double upper;
+    private final int samples;
+
+    /**
+     * Create a new {@link ApproximateSpearman} from the given score vectors.
+     *
+     * @param a     the one score vector
+     * @param b     the other score vector
+     * @param width the maximum width of the 95% confidence interval
+     * @param seed  the seed of the random sampling
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     * @throws IllegalArgumentException if {@code width} is not positive
+     */
+    public ApproximateSpearman(double[] a, double[] b, double width, long seed) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        if (!(width > 0)) {
+            throw new IllegalArgumentException("Width must be positive");
+        }
+        final int n = a.length;
+        final SplittableRandom random = new SplittableRandom(seed);
+        final LongCounter selected = new LongCounter();
+        double[] sampleA = new double[0];
+        double[] sampleB = new double[0];
+        int m = 0;
+        int target = INITIAL_SAMPLES;
+        while (target <= n / 2) {
+            if (target > sampleA.length) {
+                sampleA = Arrays.copyOf(sampleA, target);
+                sampleB = Arrays.copyOf(sampleB, target);
+            }
+            // Rejection sampling of new rows is cheap because at most half of the rows are ever selected
+            while (m < target) {
+                final int row = random.nextInt(n);
+                if (selected.get(row) == 0) {
+                    selected.add(row, 1);
+                    sampleA[m] = a[row];
+                    sampleB[m] = b[row];
+                    m++;
+                }
+            }
+            final double r = new Spearman(sampleA, sampleB).value();
+            if (Double.isNaN(r)) {
+                // Either input is constant in the sample, which more rows would rarely resolve
+                break;
+            }
+            final double z = 0.5 * Math.log((1 + r) / (1 - r));
+            final double error = Math.sqrt((1 + r * r / 2) / (m - 3));
+            final double lower = Math.tanh(z - ApproximateKendall.Z * error);
+            final double upper = Math.tanh(z + ApproximateKendall.Z * error);
+            if (upper - lower <= width) {
+                this.value = r;
+                this.lower = lower;
+                this.upper = upper;
+                this.samples = m;
+                return;
+            }
+            // Invert the interval width, which is about 2 Z (1 - r^2) error, for the standard error it requires
+            final double required = width / (2 * ApproximateKendall.Z * (1 - r * r));
+            final double predicted = 3 + (1 + r * r / 2) / (required * required);
+            target = m + (m >> 1);
+            if (predicted > target) {
+                target = (int) Math.min(n, Math.ceil(predicted));
+            }
+        }
+        this.value = new Spearman(a, b).value();
+        this.lower = this.value;
+        this.upper = this.value;
+        this.samples = n;
+    }
+
+    /**
+     * Returns the estimate of the Spearman's rank correlation coefficient of the inputs that this instance was created
+     * from.
+     *
+     * @return the estimate of the Spearman's rank correlation coefficient of the inputs that this instance was created
+     * from
+     */
+    public double value() {
+        return this.value;
+    }
+
+    /**
+     * Returns the lower bound of the 95% confidence interval of {@link #value()}.
+     *
+     * @return the lower bound of the 95% confidence interval of {@link #value()}
+     */
+    public double lower() {
+        return this.lower;
+    }
+
+    /**
+     * Returns the upper bound of the 95% confidence interval of {@link #value()}.
+     *
+     * @return the upper bound of the 95% confidence interval of {@link #value()}
+     */
+    public double upper() {
+        return this.upper;
+    }
+
+    /**
+     * Returns the number of sampled rows, or the number of all rows if the exact value was computed.
+     *
+     * @return the number of sampled rows, or the number of all rows if the exact value was computed
+     */
+    public int samples() {
+        return this.samples;
+    }
+}
@@ -0,0 +1,155 @@
+package gr.james.measures;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded ring of reusable chunks that connects a producer thread to a {@link CorrelationAccumulator} on a consumer
+ * thread.
+ * <p>
+ * The ring preallocates a fixed number of chunks, each holding a pair of {@code double[]} of the same capacity. The
+ * producer {@link #claim() claims} a free chunk, fills a prefix of its arrays and {@link #publish(Chunk, int)
+ * publishes} it, while the consumer adds the published chunks to an accumulator in
+ * {@link #drainTo(CorrelationAccumulator)} and returns them to the ring. The producer blocks only when all chunks are
+ * waiting to be consumed, so reading the source and accumulating overlap, and no memory is allocated after the ring
+ * is created. The producer calls {@link #close()} after its last chunk.
+ * <p>
+ * A ring supports a single producer and a single consumer thread.
+ */
+public class ChunkRing {
+    /**
+     * A reusable pair of arrays in a {@link ChunkRing}.
+     */
+    public static final class Chunk {
+        private final double[] a;
+        private final double[] b;
+        private int length;
+
+        private Chunk(int capacity) {
+            this.a = new double[capacity];
+            this.b = new double[capacity];
+        }
+
+        /**
+         * Returns the array of the one series of this chunk.
+         *
+         * @return the array of the one series of this chunk
+         */
+        public double[] a() {
+            return this.a;
+        }
+
+        /**
+         * Returns the array of the other series of this chunk.
+         *
+         * @return the array of the other series of this chunk
+         */
+        public double[] b() {
+            return this.b;
+        }
+
+        /**
+         * Returns the capacity of the arrays of this chunk.
+         *
+         * @return the capacity of the arrays of this chunk
+         */
+        public int capacity() {
+            return this.a.length;
+        }
+    }
+
+    private static final Chunk END = new Chunk(0);
+
+    private final BlockingQueue<Chunk> free;
+    private final BlockingQueue<Chunk> full;
+    private boolean closed;
+
+    /**
+     * Create a new {@link ChunkRing} with the given number of chunks of the given capacity.
+     *
+     * @param slots    the number of chunks
+     * @param capacity the capacity of the arrays of each chunk
+     * @throws IllegalArgumentException if either {@code slots} or {@code capacity} is not positive
+     */
+    public ChunkRing(int slots, int capacity) {
+        if (slots <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Slots and capacity must be positive");
+        }
+        this.free = new ArrayBlockingQueue<>(slots);
+        this.full = new ArrayBlockingQueue<>(slots + 1);
+        for (int i = 0; i < slots; i++) {
+            this.free.add(new Chunk(capacity));
+        }
+        this.closed = false;
+    }
+
+    /**
+     * Claims a free chunk for the producer, waiting until one is returned by the consumer if necessary.
+     *
+     * @return a free chunk
+     * @throws IllegalStateException if this ring is closed
+     * @throws InterruptedException  if interrupted while waiting
+     */
+    public Chunk claim() throws InterruptedException {
+        if (this.closed) {
+            throw new IllegalStateException("Ring is closed");
+        }
+        return this.free.take();
+    }
+
+    /**
+     * Publishes a claimed chunk to the consumer.
+     * <p>
+     * The first {@code length} elements of the arrays of the chunk are added to the accumulator of the consumer.
+     *
+     * @param chunk  the chunk, which must have been returned by {@link #claim()} and not been published since
+     * @param length the number of elements to add from the chunk
+     * @throws NullPointerException     if {@code chunk} is {@code null}
+     * @throws IllegalArgumentException if {@code length} is not in {@code [0, chunk.capacity()]}
+     * @throws IllegalStateException    if this ring is closed
+     */
+    public void publish(Chunk chunk, int length) {
+        if (length < 0 || length > chunk.capacity()) {
+            throw new IllegalArgumentException("Length must be within the capacity of the chunk");
+        }
+        if (this.closed) {
+            throw new IllegalStateException("Ring is closed");
+        }
+        chunk.length = length;
+        this.full.add(chunk);
+    }
+
+    /**
+     * Signals the consumer that no more chunks will be published.
+     * <p>
+     * Calling this method more than once has no effect.
+     */
+    public void close() {
+        if (!this.closed) {
+            this.closed = true;
+            this.full.add(END);
+        }
+    }
+
+    /**
+     * Adds every published chunk to the given accumulator, in the order of publication, until the producer closes the
+     * ring.
+     *
+     * @param accumulator the accumulator
+     * @throws NullPointerException if {@code accumulator} is {@code null}
+     * @throws InterruptedException if interrupted while waiting for a chunk
+     */
+    public void drainTo(CorrelationAccumulator accumulator) throws InterruptedException {
+        if (accumulator == null) {
+            throw new NullPointerException();
+        }
+        while (true) {
+            final Chunk chunk = this.full.take();
+            if (chunk == END) {
+                return;
+            }
+            accumulator.add(chunk.a, 0, chunk.b, 0, chunk.length);
+            this.free.add(chunk);
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package gr.james.measures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped reader of a columnar vector file.
+ * <p>
+ * A column file stores {@code columns} vectors of {@code rows} elements each, as fixed-width primitive columns one
+ * after the other. All values are little-endian. The file starts with a header of {@link #HEADER} bytes:
+ * <ul>
+ *     <li>bytes {@code 0-3}: the magic number {@link #MAGIC}</li>
+ *     <li>bytes {@code 4-7}: the format version {@link #VERSION}</li>
+ *     <li>bytes {@code 8-11}: the width in bytes of each element, which identifies the {@link Type}</li>
+ *     <li>bytes {@code 12-15}: the number of columns</li>
+ *     <li>bytes {@code 16-23}: the number of rows</li>
+ *     <li>bytes {@code 24-63}: reserved, zero</li>
+ * </ul>
+ * followed by the elements of column {@code 0}, then the elements of column {@code 1} and so on, such that element
+ * {@code k} of column {@code i} is at byte {@code HEADER + (i * rows + k) * width}. Files are written with
+ * {@link ColumnFileWriter}.
+ * <p>
+ * The data of the file is mapped into memory in read-only segments, so the correlations and similarities are computed
+ * directly over the operating system page cache, without copying the columns into the heap. Since a single mapping
+ * is limited to 2 GB, larger files are split into multiple mappings. The mappings are released by the garbage
+ * collector after this instance is closed and becomes unreachable.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public class ColumnFile implements Closeable {
+    /**
+     * The types of elements of a column file.
+     */
+    public enum Type {
+        /**
+         * 64-bit {@code double} elements.
+         */
+        DOUBLE(8),
+        /**
+         * 32-bit {@code float} elements, which are widened to {@code double} when read.
+         */
+        FLOAT(4);
+
+        private final int width;
+
+        Type(int width) {
+            this.width = width;
+        }
+
+        /**
+         * Returns the width in bytes of an element of this type.
+         *
+         * @return the width in bytes of an element of this type
+         */
+        public int width() {
+            return this.width;
+        }
+
+        static Type of(int width) {
+            for (Type type : values()) {
+                if (type.width == width) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * The magic number at the start of a column file, the ASCII characters {@code MCOL}.
+     */
+    public static final int MAGIC = 0x4C4F434D;
+
+    /**
+     * The version of the column file format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The size of the header in bytes, which keeps the columns aligned to the element width.
+     */
+    public static final int HEADER = 64;
+
+    /**
+     * The base 2 logarithm of the size of each mapping, which is 1 GB.
+     */
+    static final int SEGMENT_SHIFT = 30;
+
+    private final FileChannel channel;
+    private final Type type;
+    private final int columns;
+    private final long rows;
+    private final int segmentShift;
+    private final MappedByteBuffer[] segments;
+
+    /**
+     * Create a new {@link ColumnFile} by mapping the given file.
+     *
+     * @param path the path of the file
+     * @throws NullPointerException if {@code path} is {@code null}
+     * @throws IOException          if an I/O error occurs or if the file is not a valid column file
+     */
+    public ColumnFile(Path path) throws IOException {
+        this(path, SEGMENT_SHIFT);
+    }
+
+    ColumnFile(Path path, int segmentShift) throws IOException {
+        this.segmentShift = segmentShift;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            final ByteBuffer header = ByteBuffer.allocate(HEADER).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining()) {
+                if (this.channel.read(header, header.position()) < 0) {
+                    break;
+                }
+            }
+            if (header.hasRemaining() || header.getInt(0) != MAGIC) {
+                throw new IOException("Not a column file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("Unsupported column file version " + header.getInt(4));
+            }
+            this.type = Type.of(header.getInt(8));
+            this.columns = header.getInt(12);
+            this.rows = header.getLong(16);
+            if (this.type == null || this.columns <= 0 || this.rows <= 0) {
+                throw new IOException("Corrupted column file header");
+            }
+            final long data = Math.multiplyExact(Math.multiplyExact(this.rows, this.columns), this.type.width);
+            if (this.channel.size() < HEADER + data) {
+                throw new IOException("Truncated column file");
+            }
+            final long segment = 1L << segmentShift;
+            this.segments = new MappedByteBuffer[Math.toIntExact((data + segment - 1) >>> segmentShift)];
+            for (int s = 0; s < this.segments.length; s++) {
+                final long offset = (long) s << segmentShift;
+                this.segments[s] = this.channel.map(FileChannel.MapMode.READ_ONLY, HEADER + offset,
+                        Math.min(segment, data - offset));
+                this.segments[s].order(ByteOrder.LITTLE_ENDIAN);
+            }
+        } catch (IOException | RuntimeException e) {
+            this.channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns the type of the elements of this file.
+     *
+     * @return the type of the elements of this file
+     */
+    public Type type() {
+        return this.type;
+    }
+
+    /**
+     * Returns the number of columns of this file.
+     *
+     * @return the number of columns of this file
+     */
+    public int columns() {
+        return this.columns;
+    }
+
+    /**
+     * Returns the number of rows of this file, which is the size of each column.
+     *
+     * @return the number of rows of this file
+     */
+    public long rows() {
+        return this.rows;
+    }
+
+    /**
+     * Returns the element at the given row of the given column.
+     *
+     * @param column the column
+     * @param row    the row
+     * @return the element at {@code row} of {@code column}
+     * @throws IndexOutOfBoundsException if {@code column} or {@code row} is out of bounds
+     */
+    public double get(int column, long row) {
+        checkColumn(column);
+        if (row < 0 || row >= this.rows) {
+            throw new IndexOutOfBoundsException("Row is out of bounds");
+        }
+        final long offset = (column * this.rows + row) * this.type.width;
+        final ByteBuffer segment = this.segments[(int) (offset >>> this.segmentShift)];
+        final int position = (int) (offset & ((1L << this.segmentShift) - 1));
+        return this.type == Type.DOUBLE ? segment.getDouble(position) : segment.getFloat(position);
+    }
+
+    /**
+     * Returns the Pearson correlation coefficient of the given columns.
+     * <p>
+     * The columns are read twice, with the two-pass algorithm of {@link Pearson#Pearson(double[], double[])}.
+     *
+     * @param a the one column
+     * @param b the other column
+     * @return the Pearson correlation coefficient of columns {@code a} and {@code b} or {@link Double#NaN} if either
+     * column is constant
+     * @throws IndexOutOfBoundsException if either {@code a} or {@code b} is out of bounds
+     */
+    public double pearson(int a, int b) {
+        checkColumn(a);
+        checkColumn(b);
+        final Moments moments = new Moments();
+        moments.sums = true;
+        scan(a, b, moments);
+        moments.sums = false;
+        moments.shiftA = moments.sumA / this.rows;
+        moments.shiftB = moments.sumB / this.rows;
+        scan(a, b, moments);
+        return moments.ab / (Math.sqrt(moments.aa) * Math.sqrt(moments.bb));
+    }
+
+    /**
+     * Returns the Cosine similarity of the given columns.
+     *
+     * @param a the one column
+     * @param b the other column
+     * @return the Cosine similarity of columns {@code a} and {@code b} or {@link Double#NaN} if either column is zero
+     * @throws IndexOutOfBoundsException if either {@code a} or {@code b} is out of bounds
+     */
+    public double cosine(int a, int b) {
+        checkColumn(a);
+        checkColumn(b);
+        final Moments moments = new Moments();
+        scan(a, b, moments);
+        return moments.ab / (Math.sqrt(moments.aa) * Math.sqrt(moments.bb));
+    }
+
+    /**
+     * Closes the underlying channel of this file.
+     * <p>
+     * The mappings of the file remain valid until they are garbage collected, but this instance must not be used
+     * after it is closed.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        this.channel.close();
+    }
+
+    private void checkColumn(int column) {
+        if (column < 0 || column >= this.columns) {
+            throw new IndexOutOfBoundsException("Column is out of bounds");
+        }
+    }
+
+    /**
+     * Visits the two columns in runs that are contiguous in a single mapping of each column.
+     */
+    private void scan(int a, int b, Moments moments) {
+        final int width = this.type.width;
+        final long mask = (1L << this.segmentShift) - 1;
+        long aOffset = a * this.rows * width;
+        long bOffset = b * this.rows * width;
+        long remaining = this.rows;
+        while (remaining > 0) {
+            final int aPosition = (int) (aOffset & mask);
+            final int bPosition = (int) (bOffset & mask);
+            final long aRun = ((mask + 1) - aPosition) / width;
+            final long bRun = ((mask + 1) - bPosition) / width;
+            final int length = (int) Math.min(remaining, Math.min(aRun, bRun));
+            final ByteBuffer aSegment = this.segments[(int) (aOffset >>> this.segmentShift)];
+            final ByteBuffer bSegment = this.segments[(int) (bOffset >>> this.segmentShift)];
+            if (this.type == Type.DOUBLE) {
+                moments.doubles(aSegment, aPosition, bSegment, bPosition, length);
+            } else {
+                moments.floats(aSegment, aPosition, bSegment, bPosition, length);
+            }
+            aOffset += (long) length * width;
+            bOffset += (long) length * width;
+            remaining -= length;
+        }
+    }
+
+    /**
+     * Accumulator of the moments of two columns.
+     * <p>
+     * If {@link #sums} is set, the sums of the columns are accumulated; otherwise the co-moment and the sums of squares
+     * of the columns, after subtracting the shifts, are accumulated.
+     */
+    private static final class Moments {
+        private boolean sums;
+        private double shiftA;
+        private double shiftB;
+        private double sumA;
+        private double sumB;
+        private double ab;
+        private double aa;
+        private double bb;
+
+        void doubles(ByteBuffer a, int aPosition, ByteBuffer b, int bPosition, int length) {
+            if (this.sums) {
+                for (int i = 0; i < length; i++) {
+                    this.sumA += a.getDouble(aPosition + 8 * i);
+                    this.sumB += b.getDouble(bPosition + 8 * i);
+                }
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                final double x = a.getDouble(aPosition + 8 * i) - this.shiftA;
+                final double y = b.getDouble(bPosition + 8 * i) - this.shiftB;
+                this.ab += x * y;
+                this.aa += x * x;
+                this.bb += y * y;
+            }
+        }
+
+        void floats(ByteBuffer a, int aPosition, ByteBuffer b, int bPosition, int length) {
+            if (this.sums) {
+                for (int i = 0; i < length; i++) {
+                    this.sumA += a.getFloat(aPosition + 4 * i);
+                    this.sumB += b.getFloat(bPosition + 4 * i);
+                }
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                final double x = a.getFloat(aPosition + 4 * i) - this.shiftA;
+                final double y = b.getFloat(bPosition + 4 * i) - this.shiftB;
+                this.ab += x * y;
+                this.aa += x * x;
+                this.bb += y * y;
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package gr.james.measures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Sequential writer of a columnar vector file in the format described in {@link ColumnFile}.
+ * <p>
+ * The shape of the file is fixed when the writer is created and the elements are appended in column order, the
+ * elements of column {@code 0} first, in any number of {@code write} calls, so that columns larger than the heap can
+ * be written in chunks. Writes are buffered and {@link #close()} fails if fewer than {@code columns * rows} elements
+ * have been written.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public class ColumnFileWriter implements Closeable {
+    /**
+     * The size of the write buffer in bytes.
+     */
+    static final int BUFFER = 1 << 16;
+
+    private final FileChannel channel;
+    private final ColumnFile.Type type;
+    private final long total;
+    private final ByteBuffer buffer;
+    private long written;
+
+    /**
+     * Create a new {@link ColumnFileWriter} that creates or truncates the given file and writes its header.
+     *
+     * @param path    the path of the file
+     * @param type    the type of the elements
+     * @param columns the number of columns
+     * @param rows    the number of rows, which is the size of each column
+     * @throws NullPointerException     if either {@code path} or {@code type} is {@code null}
+     * @throws IllegalArgumentException if either {@code columns} or {@code rows} is not positive
+     * @throws IOException              if an I/O error occurs
+     */
+    public ColumnFileWriter(Path path, ColumnFile.Type type, int columns, long rows) throws IOException {
+        if (type == null) {
+            throw new NullPointerException();
+        }
+        if (columns <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Columns and rows must be positive");
+        }
+        this.type = type;
+        this.total = Math.multiplyExact(rows, columns);
+        this.written = 0;
+        this.buffer = ByteBuffer.allocateDirect(BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        this.buffer.putInt(ColumnFile.MAGIC);
+        this.buffer.putInt(ColumnFile.VERSION);
+        this.buffer.putInt(type.width());
+        this.buffer.putInt(columns);
+        this.buffer.putLong(rows);
+        while (this.buffer.position() < ColumnFile.HEADER) {
+            this.buffer.put((byte) 0);
+        }
+    }
+
+    /**
+     * Appends the given elements.
+     *
+     * @param values the elements to append
+     * @throws NullPointerException  if {@code values} is {@code null}
+     * @throws IllegalStateException if the elements do not fit in the remaining size of the file
+     * @throws IOException           if an I/O error occurs
+     */
+    public void write(double[] values) throws IOException {
+        write(values, 0, values.length);
+    }
+
+    /**
+     * Appends the elements of the given slice.
+     * <p>
+     * If the type of the file is {@link ColumnFile.Type#FLOAT}, the elements are narrowed to {@code float}.
+     *
+     * @param values the elements to append
+     * @param offset the index of the first element of {@code values} to append
+     * @param length the number of elements to append
+     * @throws NullPointerException      if {@code values} is {@code null}
+     * @throws IndexOutOfBoundsException if the slice is out of the bounds of the array
+     * @throws IllegalStateException     if the elements do not fit in the remaining size of the file
+     * @throws IOException               if an I/O error occurs
+     */
+    public void write(double[] values, int offset, int length) throws IOException {
+        checkSlice(values.length, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            if (this.buffer.remaining() < this.type.width()) {
+                flush();
+            }
+            if (this.type == ColumnFile.Type.DOUBLE) {
+                this.buffer.putDouble(values[i]);
+            } else {
+                this.buffer.putFloat((float) values[i]);
+            }
+        }
+        this.written += length;
+    }
+
+    /**
+     * Appends the given elements.
+     *
+     * @param values the elements to append
+     * @throws NullPointerException  if {@code values} is {@code null}
+     * @throws IllegalStateException if the elements do not fit in the remaining size of the file
+     * @throws IOException           if an I/O error occurs
+     */
+    public void write(float[] values) throws IOException {
+        write(values, 0, values.length);
+    }
+
+    /**
+     * Appends the elements of the given slice.
+     * <p>
+     * If the type of the file is {@link ColumnFile.Type#DOUBLE}, the elements are widened to {@code double}.
+     *
+     * @param values the elements to append
+     * @param offset the index of the first element of {@code values} to append
+     * @param length the number of elements to append
+     * @throws NullPointerException      if {@code values} is {@code null}
+     * @throws IndexOutOfBoundsException if the slice is out of the bounds of the array
+     * @throws IllegalStateException     if the elements do not fit in the remaining size of the file
+     * @throws IOException               if an I/O error occurs
+     */
+    public void write(float[] values, int offset, int length) throws IOException {
+        checkSlice(values.length, offset, length);
+        for (int i = offset; i < offset + length; i++) {
+            if (this.buffer.remaining() < this.type.width()) {
+                flush();
+            }
+            if (this.type == ColumnFile.Type.DOUBLE) {
+                this.buffer.putDouble(values[i]);
+            } else {
+                this.buffer.putFloat(values[i]);
+            }
+        }
+        this.written += length;
+    }
+
+    /**
+     * Flushes the buffered elements and closes the file.
+     *
+     * @throws IllegalStateException if fewer than {@code columns * rows} elements have been written, in which case the
+     *                               file is closed but incomplete
+     * @throws IOException           if an I/O error occurs
+     */
+    @Override
+    public void close() throws IOException {
+        if (!this.channel.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            this.channel.close();
+        }
+        if (this.written != this.total) {
+            throw new IllegalStateException("Expected " + this.total + " elements but " + this.written
+                    + " were written");
+        }
+    }
+
+    private void checkSlice(int size, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > size - length) {
+            throw new IndexOutOfBoundsException("Slice is out of bounds");
+        }
+        if (length > this.total - this.written) {
+            throw new IllegalStateException("Elements do not fit in the file");
+        }
+    }
+
+    private void flush() throws IOException {
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+}
@@ -0,0 +1,497 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+
+/**
+ * A compressed set of {@code int} elements in the style of Roaring bitmaps.
+ * <p>
+ * The elements are partitioned into chunks by their 16 most significant bits and the 16 least significant bits of the
+ * elements of each chunk are stored in a container that depends on the density of the chunk:
+ * <ul>
+ *     <li>an array container, which is a sorted {@code char[]}, for chunks with at most 4096 elements</li>
+ *     <li>a bitmap container, which is a {@code long[1024]}, for chunks with more than 4096 elements</li>
+ *     <li>a run container, which stores sorted runs of consecutive elements, for chunks where
+ *     {@link #runOptimize()} decides that it is the most compact representation</li>
+ * </ul>
+ * The set theoretic measures accept instances of this class and compute the intersection of two sets container by
+ * container, without decompressing either set.
+ */
+public class CompressedIntSet {
+    static final int ARRAY_MAX_SIZE = 4096;
+
+    private char[] keys;
+    private Container[] containers;
+    private int chunks;
+    private int size;
+
+    /**
+     * Create a new empty {@link CompressedIntSet}.
+     */
+    public CompressedIntSet() {
+        this.keys = new char[4];
+        this.containers = new Container[4];
+        this.chunks = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Create a new {@link CompressedIntSet} with the given elements.
+     * <p>
+     * The input may contain duplicates and will not be modified.
+     *
+     * @param elements the elements of the set
+     * @throws NullPointerException if {@code elements} is {@code null}
+     */
+    public CompressedIntSet(int... elements) {
+        this();
+        for (int element : elements) {
+            add(element);
+        }
+    }
+
+    /**
+     * Adds the given element to this set.
+     *
+     * @param element the element to add
+     * @return {@code true} if this set did not already contain {@code element}
+     */
+    public boolean add(int element) {
+        final char key = (char) (element >>> 16);
+        final char low = (char) element;
+        int index = Arrays.binarySearch(this.keys, 0, this.chunks, key);
+        if (index < 0) {
+            index = -index - 1;
+            if (this.chunks == this.keys.length) {
+                this.keys = Arrays.copyOf(this.keys, this.chunks * 2);
+                this.containers = Arrays.copyOf(this.containers, this.chunks * 2);
+            }
+            System.arraycopy(this.keys, index, this.keys, index + 1, this.chunks - index);
+            System.arraycopy(this.containers, index, this.containers, index + 1, this.chunks - index);
+            this.keys[index] = key;
+            this.containers[index] = new ArrayContainer();
+            this.chunks++;
+        }
+        Container container = this.containers[index];
+        if (container instanceof RunContainer) {
+            if (container.contains(low)) {
+                return false;
+            }
+            container = ((RunContainer) container).toArrayOrBitmap();
+        }
+        if (container instanceof ArrayContainer && container.cardinality() == ARRAY_MAX_SIZE
+                && !container.contains(low)) {
+            container = ((ArrayContainer) container).toBitmap();
+        }
+        this.containers[index] = container;
+        final boolean added;
+        if (container instanceof ArrayContainer) {
+            added = ((ArrayContainer) container).add(low);
+        } else {
+            added = ((BitmapContainer) container).add(low);
+        }
+        if (added) {
+            this.size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether this set contains the given element.
+     *
+     * @param element the element to test
+     * @return {@code true} if this set contains {@code element}
+     */
+    public boolean contains(int element) {
+        final int index = Arrays.binarySearch(this.keys, 0, this.chunks, (char) (element >>> 16));
+        return index >= 0 && this.containers[index].contains((char) element);
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether this set is empty.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Converts every container of this set to a run container if that is its most compact representation.
+     * <p>
+     * This method is meant to be called once after all elements have been added. Adding to a run container will
+     * convert it back to an array or bitmap container.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < this.chunks; i++) {
+            final Container container = this.containers[i];
+            if (container instanceof RunContainer) {
+                continue;
+            }
+            final int runs = container.runs();
+            final int runBytes = 2 + 4 * runs;
+            final int currentBytes = container instanceof ArrayContainer ? 2 * container.cardinality() : 8192;
+            if (runBytes < currentBytes) {
+                this.containers[i] = RunContainer.of(container, runs);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of elements in the intersection of this set and {@code other}.
+     *
+     * @param other the other set
+     * @return the number of elements in the intersection of this set and {@code other}
+     * @throws NullPointerException if {@code other} is {@code null}
+     */
+    public int intersection(CompressedIntSet other) {
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.chunks && j < other.chunks) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                intersection += intersection(this.containers[i], other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return intersection;
+    }
+
+    static int intersection(Container x, Container y) {
+        if (x instanceof ArrayContainer) {
+            return y.intersection((ArrayContainer) x);
+        } else if (y instanceof ArrayContainer) {
+            return x.intersection((ArrayContainer) y);
+        } else if (x instanceof BitmapContainer) {
+            return y.intersection((BitmapContainer) x);
+        } else if (y instanceof BitmapContainer) {
+            return x.intersection((BitmapContainer) y);
+        } else {
+            return ((RunContainer) x).intersection((RunContainer) y);
+        }
+    }
+
+    /**
+     * The read-only contract of the containers; only array and bitmap containers are built incrementally.
+     */
+    abstract static class Container {
+        abstract boolean contains(char x);
+
+        abstract int cardinality();
+
+        abstract int runs();
+
+        abstract int intersection(ArrayContainer other);
+
+        abstract int intersection(BitmapContainer other);
+    }
+
+    static final class ArrayContainer extends Container {
+        private char[] values = new char[4];
+        private int cardinality = 0;
+
+        boolean add(char x) {
+            int index = Arrays.binarySearch(this.values, 0, this.cardinality, x);
+            if (index >= 0) {
+                return false;
+            }
+            index = -index - 1;
+            if (this.cardinality == this.values.length) {
+                this.values = Arrays.copyOf(this.values, Math.min(this.cardinality * 2, ARRAY_MAX_SIZE));
+            }
+            System.arraycopy(this.values, index, this.values, index + 1, this.cardinality - index);
+            this.values[index] = x;
+            this.cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return Arrays.binarySearch(this.values, 0, this.cardinality, x) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        int runs() {
+            int runs = 0;
+            for (int i = 0; i < this.cardinality; i++) {
+                if (i == 0 || this.values[i] != this.values[i - 1] + 1) {
+                    runs++;
+                }
+            }
+            return runs;
+        }
+
+        @Override
+        int intersection(ArrayContainer other) {
+            int intersection = 0;
+            int i = 0;
+            int j = 0;
+            while (i < this.cardinality && j < other.cardinality) {
+                if (this.values[i] < other.values[j]) {
+                    i++;
+                } else if (this.values[i] > other.values[j]) {
+                    j++;
+                } else {
+                    intersection++;
+                    i++;
+                    j++;
+                }
+            }
+            return intersection;
+        }
+
+        @Override
+        int intersection(BitmapContainer other) {
+            int intersection = 0;
+            for (int i = 0; i < this.cardinality; i++) {
+                if (other.contains(this.values[i])) {
+                    intersection++;
+                }
+            }
+            return intersection;
+        }
+
+        BitmapContainer toBitmap() {
+            final BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < this.cardinality; i++) {
+                bitmap.add(this.values[i]);
+            }
+            return bitmap;
+        }
+    }
+
+    static final class BitmapContainer extends Container {
+        private final long[] words = new long[1024];
+        private int cardinality = 0;
+
+        boolean add(char x) {
+            final long mask = 1L << x;
+            final long word = this.words[x >>> 6];
+            if ((word & mask) != 0) {
+                return false;
+            }
+            this.words[x >>> 6] = word | mask;
+            this.cardinality++;
+            return true;
+        }
+
+        @Override
+        boolean contains(char x) {
+            return (this.words[x >>> 6] & (1L << x)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        int runs() {
+            int runs = 0;
+            for (int i = 0; i < this.words.length; i++) {
+                final long word = this.words[i];
+                final long previous = i == 0 ? 0 : this.words[i - 1] >>> 63;
+                runs += Long.bitCount(word & ~((word << 1) | previous));
+            }
+            return runs;
+        }
+
+        @Override
+        int intersection(ArrayContainer other) {
+            return other.intersection(this);
+        }
+
+        @Override
+        int intersection(BitmapContainer other) {
+            int intersection = 0;
+            for (int i = 0; i < this.words.length; i++) {
+                intersection += Long.bitCount(this.words[i] & other.words[i]);
+            }
+            return intersection;
+        }
+
+        /**
+         * Returns the number of set bits in the inclusive range {@code [start, end]}.
+         */
+        int cardinality(int start, int end) {
+            final int first = start >>> 6;
+            final int last = end >>> 6;
+            final long firstMask = -1L << start;
+            final long lastMask = -1L >>> (63 - (end & 63));
+            if (first == last) {
+                return Long.bitCount(this.words[first] & firstMask & lastMask);
+            }
+            int cardinality = Long.bitCount(this.words[first] & firstMask);
+            for (int i = first + 1; i < last; i++) {
+                cardinality += Long.bitCount(this.words[i]);
+            }
+            cardinality += Long.bitCount(this.words[last] & lastMask);
+            return cardinality;
+        }
+    }
+
+    static final class RunContainer extends Container {
+        /**
+         * The inclusive start and end of each run, in ascending order.
+         */
+        private final char[] starts;
+        private final char[] ends;
+        private final int cardinality;
+
+        private RunContainer(char[] starts, char[] ends, int cardinality) {
+            this.starts = starts;
+            this.ends = ends;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * Creates a run container from an array or bitmap container with the given number of runs.
+         */
+        static RunContainer of(Container container, int runs) {
+            final char[] starts = new char[runs];
+            final char[] ends = new char[runs];
+            if (container instanceof ArrayContainer) {
+                final ArrayContainer array = (ArrayContainer) container;
+                int run = -1;
+                for (int i = 0; i < array.cardinality; i++) {
+                    if (i == 0 || array.values[i] != array.values[i - 1] + 1) {
+                        starts[++run] = array.values[i];
+                    }
+                    ends[run] = array.values[i];
+                }
+            } else {
+                // Skip the zero words, then fill the trailing zeros of the word to skip to the end of the run
+                final long[] words = ((BitmapContainer) container).words;
+                int i = 0;
+                long word = words[0];
+                for (int run = 0; run < runs; run++) {
+                    while (word == 0) {
+                        word = words[++i];
+                    }
+                    starts[run] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word |= word - 1;
+                    while (word == -1L && i < words.length - 1) {
+                        word = words[++i];
+                    }
+                    if (word == -1L) {
+                        ends[run] = Character.MAX_VALUE;
+                    } else {
+                        ends[run] = (char) (i * 64 + Long.numberOfTrailingZeros(~word) - 1);
+                        word &= word + 1;
+                    }
+                }
+            }
+            return new RunContainer(starts, ends, container.cardinality());
+        }
+
+        Container toArrayOrBitmap() {
+            if (this.cardinality <= ARRAY_MAX_SIZE) {
+                final ArrayContainer array = new ArrayContainer();
+                array.values = new char[Math.max(this.cardinality, 4)];
+                for (int i = 0; i < this.starts.length; i++) {
+                    for (int x = this.starts[i]; x <= this.ends[i]; x++) {
+                        array.values[array.cardinality++] = (char) x;
+                    }
+                }
+                return array;
+            }
+            final BitmapContainer bitmap = new BitmapContainer();
+            for (int i = 0; i < this.starts.length; i++) {
+                for (int x = this.starts[i]; x <= this.ends[i]; x++) {
+                    bitmap.add((char) x);
+                }
+            }
+            return bitmap;
+        }
+
+        @Override
+        boolean contains(char x) {
+            int low = 0;
+            int high = this.starts.length - 1;
+            while (low <= high) {
+                final int middle = (low + high) >>> 1;
+                if (x < this.starts[middle]) {
+                    high = middle - 1;
+                } else if (x > this.ends[middle]) {
+                    low = middle + 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int cardinality() {
+            return this.cardinality;
+        }
+
+        @Override
+        int runs() {
+            return this.starts.length;
+        }
+
+        @Override
+        int intersection(ArrayContainer other) {
+            int intersection = 0;
+            int run = 0;
+            for (int i = 0; i < other.cardinality && run < this.starts.length; i++) {
+                final char x = other.values[i];
+                while (run < this.starts.length && this.ends[run] < x) {
+                    run++;
+                }
+                if (run < this.starts.length && this.starts[run] <= x) {
+                    intersection++;
+                }
+            }
+            return intersection;
+        }
+
+        @Override
+        int intersection(BitmapContainer other) {
+            int intersection = 0;
+            for (int i = 0; i < this.starts.length; i++) {
+                intersection += other.cardinality(this.starts[i], this.ends[i]);
+            }
+            return intersection;
+        }
+
+        int intersection(RunContainer other) {
+            int intersection = 0;
+            int i = 0;
+            int j = 0;
+            while (i < this.starts.length && j < other.starts.length) {
+                final int start = Math.max(this.starts[i], other.starts[j]);
+                final int end = Math.min(this.ends[i], other.ends[j]);
+                if (start <= end) {
+                    intersection += end - start + 1;
+                }
+                if (this.ends[i] < other.ends[j]) {
+                    i++;
+                } else {
+                    j++;
+                }
+            }
+            return intersection;
+        }
+    }
+}
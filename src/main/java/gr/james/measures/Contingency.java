@@ -0,0 +1,235 @@
+package gr.james.measures;
+
+import java.util.Set;
+
+/**
+ * The 2x2 contingency table of two sets.
+ * <p>
+ * The table consists of the counts {@code N11} (elements in both sets), {@code N10} (elements only in the first set),
+ * {@code N01} (elements only in the second set) and {@code N00} (elements of the world in neither set). All the set
+ * theoretic measures in this package can be derived from these four numbers, so a single {@link Contingency} can be
+ * used to create any number of measures on the same pair of sets with a single pass over the data:
+ * <pre><code>
+ * Contingency c = new Contingency(a, b, world);
+ * double jaccard = new Jaccard(c).value();
+ * double sorensen = new Sorensen(c).value();
+ * double mi = new MutualInformation(c).mutualInformation();
+ * </code></pre>
+ */
+public class Contingency {
+    private final long n11;
+    private final long n10;
+    private final long n01;
+    private final long n00;
+
+    /**
+     * Create a new {@link Contingency} from the given sets.
+     * <p>
+     * The world is assumed to be the union of {@code a} and {@code b} and, thus, {@code N00} is {@code 0}.
+     *
+     * @param a   one set
+     * @param b   the other set
+     * @param <T> the type of elements in the inputs
+     * @throws NullPointerException if either {@code a} or {@code b} is {@code null}
+     */
+    public <T> Contingency(Set<T> a, Set<T> b) {
+        this.n11 = intersection(a, b);
+        this.n10 = a.size() - this.n11;
+        this.n01 = b.size() - this.n11;
+        this.n00 = 0;
+    }
+
+    /**
+     * Create a new {@link Contingency} from the given sets.
+     * <p>
+     * The {@code world} set must be a superset of {@code a} and {@code b} and this constructor will make no checks to
+     * ensure that.
+     *
+     * @param a     one set
+     * @param b     the other set
+     * @param world the world set
+     * @param <T>   the type of elements in the inputs
+     * @throws NullPointerException if either {@code a}, {@code b} or {@code world} is {@code null}
+     */
+    public <T> Contingency(Set<T> a, Set<T> b, Set<T> world) {
+        this.n11 = intersection(a, b);
+        this.n10 = a.size() - this.n11;
+        this.n01 = b.size() - this.n11;
+        this.n00 = world.size() - this.n11 - this.n10 - this.n01;
+    }
+
+    /**
+     * Create a new {@link Contingency} from the given {@link DenseIntSet dense sets}.
+     * <p>
+     * The universe of the inputs is used as the world set.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different universes
+     */
+    public Contingency(DenseIntSet a, DenseIntSet b) {
+        this.n11 = a.intersection(b);
+        this.n10 = a.size() - this.n11;
+        this.n01 = b.size() - this.n11;
+        this.n00 = a.universe() - this.n11 - this.n10 - this.n01;
+    }
+
+    /**
+     * Create a new {@link Contingency} from the given {@link SortedIntSet sorted sets}.
+     * <p>
+     * The world is assumed to be the union of {@code a} and {@code b} and, thus, {@code N00} is {@code 0}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException if either {@code a} or {@code b} is {@code null}
+     */
+    public Contingency(SortedIntSet a, SortedIntSet b) {
+        this.n11 = a.intersection(b);
+        this.n10 = a.size() - this.n11;
+        this.n01 = b.size() - this.n11;
+        this.n00 = 0;
+    }
+
+    /**
+     * Create a new {@link Contingency} from the given {@link SortedLongSet sorted sets}.
+     * <p>
+     * The world is assumed to be the union of {@code a} and {@code b} and, thus, {@code N00} is {@code 0}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException if either {@code a} or {@code b} is {@code null}
+     */
+    public Contingency(SortedLongSet a, SortedLongSet b) {
+        this.n11 = a.intersection(b);
+        this.n10 = a.size() - this.n11;
+        this.n01 = b.size() - this.n11;
+        this.n00 = 0;
+    }
+
+    /**
+     * Create a new {@link Contingency} from the given {@link CompressedIntSet compressed sets}.
+     * <p>
+     * The world is assumed to be the union of {@code a} and {@code b} and, thus, {@code N00} is {@code 0}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException if either {@code a} or {@code b} is {@code null}
+     */
+    public Contingency(CompressedIntSet a, CompressedIntSet b) {
+        this.n11 = a.intersection(b);
+        this.n10 = a.size() - this.n11;
+        this.n01 = b.size() - this.n11;
+        this.n00 = 0;
+    }
+
+    /**
+     * Create a new {@link Contingency} from the given counts.
+     *
+     * @param n11 the number of elements in both sets
+     * @param n10 the number of elements in the first set but not in the second
+     * @param n01 the number of elements in the second set but not in the first
+     * @param n00 the number of elements of the world in neither set
+     * @throws IllegalArgumentException if any of the counts is negative
+     */
+    public Contingency(long n11, long n10, long n01, long n00) {
+        if (n11 < 0 || n10 < 0 || n01 < 0 || n00 < 0) {
+            throw new IllegalArgumentException("Counts cannot be negative");
+        }
+        this.n11 = n11;
+        this.n10 = n10;
+        this.n01 = n01;
+        this.n00 = n00;
+    }
+
+    private static <T> long intersection(Set<T> a, Set<T> b) {
+        Set<T> big;
+        Set<T> small;
+        if (a.size() > b.size()) {
+            big = a;
+            small = b;
+        } else {
+            big = b;
+            small = a;
+        }
+        long intersection = 0;
+        for (T t : small) {
+            if (big.contains(t)) {
+                intersection++;
+            }
+        }
+        return intersection;
+    }
+
+    /**
+     * Returns the number of elements in both sets.
+     *
+     * @return the number of elements in both sets
+     */
+    public long n11() {
+        return this.n11;
+    }
+
+    /**
+     * Returns the number of elements in the first set but not in the second.
+     *
+     * @return the number of elements in the first set but not in the second
+     */
+    public long n10() {
+        return this.n10;
+    }
+
+    /**
+     * Returns the number of elements in the second set but not in the first.
+     *
+     * @return the number of elements in the second set but not in the first
+     */
+    public long n01() {
+        return this.n01;
+    }
+
+    /**
+     * Returns the number of elements of the world in neither set.
+     *
+     * @return the number of elements of the world in neither set
+     */
+    public long n00() {
+        return this.n00;
+    }
+
+    /**
+     * Returns the size of the first set.
+     *
+     * @return the size of the first set
+     */
+    public long sizeA() {
+        return this.n11 + this.n10;
+    }
+
+    /**
+     * Returns the size of the second set.
+     *
+     * @return the size of the second set
+     */
+    public long sizeB() {
+        return this.n11 + this.n01;
+    }
+
+    /**
+     * Returns the size of the union of the two sets.
+     *
+     * @return the size of the union of the two sets
+     */
+    public long union() {
+        return this.n11 + this.n10 + this.n01;
+    }
+
+    /**
+     * Returns the size of the world.
+     *
+     * @return the size of the world
+     */
+    public long world() {
+        return this.n11 + this.n10 + this.n01 + this.n00;
+    }
+}
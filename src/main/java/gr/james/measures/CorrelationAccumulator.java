@@ -0,0 +1,206 @@
+package gr.james.measures;
+
+import java.nio.DoubleBuffer;
+
+/**
+ * Single-pass accumulator of the Pearson correlation coefficient and the Cosine similarity of two series that are
+ * pushed in chunks.
+ * <p>
+ * The series can be unbounded and each element is visited only while its chunk is being added, so the input can be
+ * a one-shot source such as a network stream or a file that is read block by block. Chunks are given as primitive
+ * arrays, slices or {@link DoubleBuffer buffers} and never boxed. The moments of each chunk are computed with the
+ * two-pass algorithm over the chunk and merged into the running moments with the pairwise update of Chan et al.,
+ * which is numerically stable in the presence of large offsets. Accumulators of disjoint parts of the series can be
+ * combined with {@link #merge(CorrelationAccumulator)}, and a {@link ChunkRing} lets a producer thread fill the next
+ * chunks while a consumer thread adds the previous ones.
+ * <p>
+ * Instances of this class are not thread-safe.
+ */
+public class CorrelationAccumulator {
+    /**
+     * The size of the scratch arrays that the elements of buffers without accessible arrays are copied to.
+     */
+    static final int SCRATCH = 1024;
+
+    private final double[] moments;
+    private double[] scratchA;
+    private double[] scratchB;
+
+    private long count;
+    private double meanA;
+    private double meanB;
+    private double m2A;
+    private double m2B;
+    private double comoment;
+    private double dot;
+    private double normA;
+    private double normB;
+
+    /**
+     * Create a new empty {@link CorrelationAccumulator}.
+     */
+    public CorrelationAccumulator() {
+        this.moments = new double[3];
+    }
+
+    /**
+     * Adds a single pair of elements.
+     *
+     * @param a the element of the one series
+     * @param b the element of the other series
+     */
+    public void add(double a, double b) {
+        combine(1, a, b, 0, 0, 0);
+        this.dot += a * b;
+        this.normA += a * a;
+        this.normB += b * b;
+    }
+
+    /**
+     * Adds the given chunk of elements.
+     *
+     * @param a the chunk of the one series
+     * @param b the chunk of the other series
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public void add(double[] a, double[] b) {
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        chunk(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Adds the given slices of arrays as a chunk.
+     * <p>
+     * The elements {@code a[aOffset + i]} and {@code b[bOffset + i]} are matched for every {@code i} in
+     * {@code [0, length)}.
+     *
+     * @param a       the chunk of the one series
+     * @param aOffset the index of the first element of {@code a} to add
+     * @param b       the chunk of the other series
+     * @param bOffset the index of the first element of {@code b} to add
+     * @param length  the number of elements to add from each array
+     * @throws NullPointerException      if either {@code a} or {@code b} is {@code null}
+     * @throws IndexOutOfBoundsException if either slice is out of the bounds of its array
+     */
+    public void add(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        if (length < 0 || aOffset < 0 || aOffset > a.length - length || bOffset < 0 || bOffset > b.length - length) {
+            throw new IndexOutOfBoundsException("Slice is out of bounds");
+        }
+        chunk(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Adds the remaining elements of the given buffers as a chunk.
+     * <p>
+     * Unlike the buffer constructors of {@link Pearson} and {@link Cosine}, this method consumes the buffers, leaving
+     * their positions at their limits, so that a buffer can be refilled and added again.
+     *
+     * @param a the chunk of the one series
+     * @param b the chunk of the other series
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have a different number of remaining elements
+     */
+    public void add(DoubleBuffer a, DoubleBuffer b) {
+        if (a.remaining() != b.remaining()) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        if (a.hasArray() && b.hasArray()) {
+            chunk(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(), a.remaining());
+            a.position(a.limit());
+            b.position(b.limit());
+            return;
+        }
+        if (this.scratchA == null) {
+            this.scratchA = new double[SCRATCH];
+            this.scratchB = new double[SCRATCH];
+        }
+        while (a.hasRemaining()) {
+            final int length = Math.min(a.remaining(), SCRATCH);
+            a.get(this.scratchA, 0, length);
+            b.get(this.scratchB, 0, length);
+            chunk(this.scratchA, 0, this.scratchB, 0, length);
+        }
+    }
+
+    /**
+     * Merges the given accumulator into this accumulator.
+     * <p>
+     * After this call, this accumulator reflects the elements of both accumulators, as if the elements of
+     * {@code other} were added to this accumulator. The {@code other} accumulator is not modified.
+     *
+     * @param other the accumulator to merge into this accumulator
+     * @throws NullPointerException if {@code other} is {@code null}
+     */
+    public void merge(CorrelationAccumulator other) {
+        combine(other.count, other.meanA, other.meanB, other.m2A, other.m2B, other.comoment);
+        this.dot += other.dot;
+        this.normA += other.normA;
+        this.normB += other.normB;
+    }
+
+    /**
+     * Returns the number of pairs of elements added to this accumulator.
+     *
+     * @return the number of pairs of elements added to this accumulator
+     */
+    public long count() {
+        return this.count;
+    }
+
+    /**
+     * Returns the Pearson correlation coefficient of the elements added to this accumulator.
+     *
+     * @return the Pearson correlation coefficient of the elements added to this accumulator or {@link Double#NaN} if
+     * the accumulator is empty or either series is constant
+     */
+    public double pearson() {
+        return this.comoment / (Math.sqrt(this.m2A) * Math.sqrt(this.m2B));
+    }
+
+    /**
+     * Returns the Cosine similarity of the elements added to this accumulator.
+     *
+     * @return the Cosine similarity of the elements added to this accumulator or {@link Double#NaN} if the accumulator
+     * is empty or either series is zero
+     */
+    public double cosine() {
+        return this.dot / (Math.sqrt(this.normA) * Math.sqrt(this.normB));
+    }
+
+    private void chunk(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        if (length == 0) {
+            return;
+        }
+        final double chunkMeanA = Kernels.sum(a, aOffset, length) / length;
+        final double chunkMeanB = Kernels.sum(b, bOffset, length) / length;
+        Kernels.moments(a, aOffset, chunkMeanA, b, bOffset, chunkMeanB, length, this.moments);
+        combine(length, chunkMeanA, chunkMeanB, this.moments[1], this.moments[2], this.moments[0]);
+        Kernels.moments(a, aOffset, 0, b, bOffset, 0, length, this.moments);
+        this.dot += this.moments[0];
+        this.normA += this.moments[1];
+        this.normB += this.moments[2];
+    }
+
+    /**
+     * Merges the moments of {@code n} other elements into the running moments.
+     */
+    private void combine(long n, double otherMeanA, double otherMeanB, double otherM2A, double otherM2B,
+                         double otherComoment) {
+        if (n == 0) {
+            return;
+        }
+        final long total = this.count + n;
+        final double dA = otherMeanA - this.meanA;
+        final double dB = otherMeanB - this.meanB;
+        final double weight = (double) this.count * n / total;
+        this.meanA += dA * n / total;
+        this.meanB += dB * n / total;
+        this.m2A += otherM2A + dA * dA * weight;
+        this.m2B += otherM2B + dB * dB * weight;
+        this.comoment += otherComoment + dA * dB * weight;
+        this.count = total;
+    }
+}
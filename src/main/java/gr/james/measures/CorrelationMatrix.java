@@ -0,0 +1,224 @@
+package gr.james.measures;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Pearson correlation coefficient matrix of many vectors.
+ * <p>
+ * Each column is standardized once, in the constructor, to zero mean and unit norm, after which the correlation of
+ * any two columns is the dot product of their standardized forms. The pairwise dot products are computed in square
+ * tiles of columns and in slices of samples, so that the working set of each tile fits in the cache, and the tiles are
+ * distributed over a {@link ForkJoinPool}. The results are written into a caller-supplied {@code double[]} in either
+ * the {@link Layout#FULL full} or the {@link Layout#UPPER packed upper-triangular} layout.
+ */
+public class CorrelationMatrix {
+    /**
+     * The layouts of the output of {@link CorrelationMatrix}.
+     */
+    public enum Layout {
+        /**
+         * The full {@code m x m} matrix in row-major order, where the correlation of columns {@code i} and {@code j}
+         * is at index {@code i * m + j}.
+         */
+        FULL,
+        /**
+         * The upper triangle of the matrix, including the diagonal, packed in row-major order, where the correlation
+         * of columns {@code i <= j} is at index {@link #upperIndex(int, int, int) upperIndex(m, i, j)}.
+         */
+        UPPER
+    }
+
+    /**
+     * The number of columns in each side of a tile.
+     */
+    static final int TILE = 64;
+
+    /**
+     * The number of samples in each slice of a tile.
+     */
+    static final int SLICE = 1024;
+
+    private final int m;
+    private final int n;
+    /**
+     * The standardized columns, stored contiguously one after the other.
+     */
+    private final double[] z;
+
+    /**
+     * Create a new {@link CorrelationMatrix} from the given columns.
+     * <p>
+     * The input is copied and will not be modified. Columns with zero variance result in {@link Double#NaN}
+     * correlations, as in {@link Pearson#Pearson(double[], double[])}.
+     *
+     * @param columns the columns, each one containing the samples of one vector
+     * @throws NullPointerException     if {@code columns} or any of its elements is {@code null}
+     * @throws IllegalArgumentException if {@code columns} is empty or any of its elements is empty
+     * @throws IllegalArgumentException if the columns are of different size
+     */
+    public CorrelationMatrix(double[][] columns) {
+        if (columns.length == 0 || columns[0].length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        this.m = columns.length;
+        this.n = columns[0].length;
+        this.z = new double[Math.multiplyExact(this.m, this.n)];
+        for (int i = 0; i < this.m; i++) {
+            final double[] column = columns[i];
+            if (column.length != this.n) {
+                throw new IllegalArgumentException("Inputs must have the same size");
+            }
+            double mean = 0;
+            for (double x : column) {
+                mean += x;
+            }
+            mean /= this.n;
+            double norm = 0;
+            for (double x : column) {
+                norm += (x - mean) * (x - mean);
+            }
+            norm = Math.sqrt(norm);
+            final int offset = i * this.n;
+            for (int k = 0; k < this.n; k++) {
+                this.z[offset + k] = (column[k] - mean) / norm;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of columns.
+     *
+     * @return the number of columns
+     */
+    public int columns() {
+        return this.m;
+    }
+
+    /**
+     * Returns the length of the output buffer required for the given layout.
+     *
+     * @param layout the layout
+     * @return the length of the output buffer required for {@code layout}
+     * @throws NullPointerException if {@code layout} is {@code null}
+     * @throws ArithmeticException  if the length does not fit in an {@code int}
+     */
+    public int length(Layout layout) {
+        switch (layout) {
+            case FULL:
+                return Math.multiplyExact(this.m, this.m);
+            case UPPER:
+                return Math.toIntExact((long) this.m * (this.m + 1) / 2);
+            default:
+                throw new AssertionError();
+        }
+    }
+
+    /**
+     * Returns the index of the correlation of columns {@code i} and {@code j} in the {@link Layout#UPPER} layout.
+     *
+     * @param m the number of columns
+     * @param i the one column
+     * @param j the other column, where {@code i <= j}
+     * @return the index of the correlation of columns {@code i} and {@code j} in the {@link Layout#UPPER} layout
+     */
+    public static int upperIndex(int m, int i, int j) {
+        return (int) ((long) i * m - (long) i * (i - 1) / 2 + (j - i));
+    }
+
+    /**
+     * Computes the correlation matrix into the given buffer using the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param out    the output buffer
+     * @param layout the layout of the output
+     * @throws NullPointerException     if either {@code out} or {@code layout} is {@code null}
+     * @throws IllegalArgumentException if {@code out} is shorter than {@link #length(Layout) length(layout)}
+     */
+    public void compute(double[] out, Layout layout) {
+        compute(ForkJoinPool.commonPool(), out, layout);
+    }
+
+    /**
+     * Computes the correlation matrix into the given buffer using the given {@link ForkJoinPool}.
+     * <p>
+     * Only the entries described by the layout are written.
+     *
+     * @param pool   the pool to execute the computation on
+     * @param out    the output buffer
+     * @param layout the layout of the output
+     * @throws NullPointerException     if either {@code pool}, {@code out} or {@code layout} is {@code null}
+     * @throws IllegalArgumentException if {@code out} is shorter than {@link #length(Layout) length(layout)}
+     */
+    public void compute(ForkJoinPool pool, double[] out, Layout layout) {
+        if (out.length < length(layout)) {
+            throw new IllegalArgumentException("Output buffer is too short");
+        }
+        final int tiles = (this.m + TILE - 1) / TILE;
+        pool.invoke(new TileTask(out, layout, 0, tiles * (tiles + 1) / 2, tiles));
+    }
+
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] out;
+        private final Layout layout;
+        private final int from;
+        private final int to;
+        private final int tiles;
+
+        TileTask(double[] out, Layout layout, int from, int to, int tiles) {
+            this.out = out;
+            this.layout = layout;
+            this.from = from;
+            this.to = to;
+            this.tiles = tiles;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > 1) {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new TileTask(this.out, this.layout, this.from, middle, this.tiles),
+                        new TileTask(this.out, this.layout, middle, this.to, this.tiles));
+                return;
+            }
+            // Map the linear index to the tile pair (ti, tj) with ti <= tj
+            int ti = 0;
+            int index = this.from;
+            while (index >= this.tiles - ti) {
+                index -= this.tiles - ti;
+                ti++;
+            }
+            tile(ti, ti + index, this.out, this.layout);
+        }
+    }
+
+    private void tile(int ti, int tj, double[] out, Layout layout) {
+        final int iFrom = ti * TILE;
+        final int iTo = Math.min(iFrom + TILE, this.m);
+        final int jFrom = tj * TILE;
+        final int jTo = Math.min(jFrom + TILE, this.m);
+        final double[] acc = new double[TILE * TILE];
+        for (int kFrom = 0; kFrom < this.n; kFrom += SLICE) {
+            final int kTo = Math.min(kFrom + SLICE, this.n);
+            for (int i = iFrom; i < iTo; i++) {
+                final int iOffset = i * this.n;
+                for (int j = Math.max(jFrom, i); j < jTo; j++) {
+                    final double dot = Kernels.dot(this.z, iOffset + kFrom, this.z, j * this.n + kFrom, kTo - kFrom);
+                    acc[(i - iFrom) * TILE + (j - jFrom)] += dot;
+                }
+            }
+        }
+        for (int i = iFrom; i < iTo; i++) {
+            for (int j = Math.max(jFrom, i); j < jTo; j++) {
+                final double value = acc[(i - iFrom) * TILE + (j - jFrom)];
+                if (layout == Layout.FULL) {
+                    out[i * this.m + j] = value;
+                    out[j * this.m + i] = value;
+                } else {
+                    out[upperIndex(this.m, i, j)] = value;
+                }
+            }
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package gr.james.measures;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Cosine similarity implementation.
@@ -22,25 +25,72 @@ public class Cosine {
      * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
      */
     public <T> Cosine(Set<T> a, Set<T> b) {
-        if (a.isEmpty() || b.isEmpty()) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link DenseIntSet dense sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different universes
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Cosine(DenseIntSet a, DenseIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link SortedIntSet sorted sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Cosine(SortedIntSet a, SortedIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link SortedLongSet sorted sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Cosine(SortedLongSet a, SortedLongSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link CompressedIntSet compressed sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Cosine(CompressedIntSet a, CompressedIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link Contingency}.
+     * <p>
+     * This form of Cosine similarity is identical to the Otsuka-Ochiai coefficient.
+     *
+     * @param c the contingency table of the two sets
+     * @throws NullPointerException     if {@code c} is {@code null}
+     * @throws IllegalArgumentException if either set of {@code c} is empty
+     */
+    public Cosine(Contingency c) {
+        if (c.sizeA() == 0 || c.sizeB() == 0) {
             throw new IllegalArgumentException("Inputs cannot be empty");
         }
-        Set<T> big;
-        Set<T> small;
-        if (a.size() > b.size()) {
-            big = a;
-            small = b;
-        } else {
-            big = b;
-            small = a;
-        }
-        int intersection = 0;
-        for (T t : small) {
-            if (big.contains(t)) {
-                intersection++;
-            }
-        }
-        this.value = (double) intersection / Math.sqrt((double) small.size() * (double) big.size());
+        this.value = (double) c.n11() / Math.sqrt((double) c.sizeA() * (double) c.sizeB());
         assert this.value >= 0 && this.value <= 1;
     }
 
@@ -79,8 +129,8 @@ public class Cosine {
             double aNext = a.next();
             double bNext = b.next();
             numerator += aNext * bNext;
-            denominatorA += Math.pow(aNext, 2);
-            denominatorB += Math.pow(bNext, 2);
+            denominatorA += aNext * aNext;
+            denominatorB += bNext * bNext;
         }
 
         if (a.hasNext() || b.hasNext()) {
@@ -91,6 +141,230 @@ public class Cosine {
         assert this.value >= 0 && this.value <= 1;
     }
 
+    /**
+     * Create a new {@link Cosine} from the given {@code double} arrays.
+     * <p>
+     * The sums are accumulated in several independent partial sums, which allows the loop to be vectorized, so the
+     * result is the same as the one produced by {@link #Cosine(List, List)} on the boxed equivalent of the inputs up to
+     * the rounding errors of the different order of summation.
+     *
+     * @param a the one vector
+     * @param b the other vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Cosine(double[] a, double[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = Kernels.cosine(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given slices of {@code double} arrays.
+     * <p>
+     * The elements {@code a[aOffset + i]} and {@code b[bOffset + i]} are matched for every {@code i} in
+     * {@code [0, length)}. The result is the same as the one produced by {@link #Cosine(double[], double[])} on copies
+     * of the slices.
+     *
+     * @param a       the one vector
+     * @param aOffset the index of the first element of {@code a} to consider
+     * @param b       the other vector
+     * @param bOffset the index of the first element of {@code b} to consider
+     * @param length  the number of elements to consider from each vector
+     * @throws NullPointerException      if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException  if {@code length} is not positive
+     * @throws IndexOutOfBoundsException if either slice is out of the bounds of its array
+     */
+    public Cosine(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (aOffset < 0 || aOffset > a.length - length || bOffset < 0 || bOffset > b.length - length) {
+            throw new IndexOutOfBoundsException("Slice is out of bounds");
+        }
+        this.value = Kernels.cosine(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link DoubleBuffer buffers}.
+     * <p>
+     * The elements between the position and the limit of each buffer are considered and matched by index. This
+     * constructor uses absolute reads and will not modify the position of the buffers.
+     *
+     * @param a the one buffer
+     * @param b the other buffer
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} has no remaining elements
+     * @throws IllegalArgumentException if {@code a} and {@code b} have a different number of remaining elements
+     */
+    public Cosine(DoubleBuffer a, DoubleBuffer b) {
+        if (!a.hasRemaining() || !b.hasRemaining()) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.remaining() != b.remaining()) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = cosine(a, b);
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@code float} arrays.
+     * <p>
+     * The elements are widened to {@code double} and all sums are accumulated in {@code double}, so the result has
+     * the accuracy of {@link #Cosine(double[], double[])} on the widened inputs, while the inputs only occupy half the
+     * memory.
+     *
+     * @param a the one vector
+     * @param b the other vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Cosine(float[] a, float[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = Kernels.cosine(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given slices of {@code float} arrays.
+     * <p>
+     * The elements {@code a[aOffset + i]} and {@code b[bOffset + i]} are matched for every {@code i} in
+     * {@code [0, length)}. The result is the same as the one produced by {@link #Cosine(float[], float[])} on copies
+     * of the slices.
+     *
+     * @param a       the one vector
+     * @param aOffset the index of the first element of {@code a} to consider
+     * @param b       the other vector
+     * @param bOffset the index of the first element of {@code b} to consider
+     * @param length  the number of elements to consider from each vector
+     * @throws NullPointerException      if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException  if {@code length} is not positive
+     * @throws IndexOutOfBoundsException if either slice is out of the bounds of its array
+     */
+    public Cosine(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (aOffset < 0 || aOffset > a.length - length || bOffset < 0 || bOffset > b.length - length) {
+            throw new IndexOutOfBoundsException("Slice is out of bounds");
+        }
+        this.value = Kernels.cosine(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link FloatBuffer buffers}.
+     * <p>
+     * The elements between the position and the limit of each buffer are considered and matched by index. This
+     * constructor uses absolute reads and will not modify the position of the buffers. The elements are widened to
+     * {@code double} and all sums are accumulated in {@code double}.
+     *
+     * @param a the one buffer
+     * @param b the other buffer
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} has no remaining elements
+     * @throws IllegalArgumentException if {@code a} and {@code b} have a different number of remaining elements
+     */
+    public Cosine(FloatBuffer a, FloatBuffer b) {
+        if (!a.hasRemaining() || !b.hasRemaining()) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.remaining() != b.remaining()) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = cosine(a, b);
+    }
+
+    /**
+     * Create a new {@link Cosine} from the given {@link SparseVector sparse vectors}.
+     * <p>
+     * Only the stored components of the inputs are visited, by merging their indices.
+     *
+     * @param a the one vector
+     * @param b the other vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different dimension
+     */
+    public Cosine(SparseVector a, SparseVector b) {
+        if (a.dimension() != b.dimension()) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        final int[] aIndices = a.indices();
+        final double[] aValues = a.values();
+        final int[] bIndices = b.indices();
+        final double[] bValues = b.values();
+
+        double numerator = 0;
+        int i = 0;
+        int j = 0;
+        while (i < aIndices.length && j < bIndices.length) {
+            if (aIndices[i] < bIndices[j]) {
+                i++;
+            } else if (aIndices[i] > bIndices[j]) {
+                j++;
+            } else {
+                numerator += aValues[i++] * bValues[j++];
+            }
+        }
+        double denominatorA = 0;
+        for (double x : aValues) {
+            denominatorA += x * x;
+        }
+        double denominatorB = 0;
+        for (double x : bValues) {
+            denominatorB += x * x;
+        }
+
+        this.value = numerator / (Math.sqrt(denominatorA) * Math.sqrt(denominatorB));
+    }
+
+    private static double cosine(DoubleBuffer a, DoubleBuffer b) {
+        if (a.hasArray() && b.hasArray()) {
+            return Kernels.cosine(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    a.remaining());
+        }
+        final int aPosition = a.position();
+        final int bPosition = b.position();
+        return cosine(i -> a.get(aPosition + i), i -> b.get(bPosition + i), a.remaining());
+    }
+
+    private static double cosine(FloatBuffer a, FloatBuffer b) {
+        if (a.hasArray() && b.hasArray()) {
+            return Kernels.cosine(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    a.remaining());
+        }
+        final int aPosition = a.position();
+        final int bPosition = b.position();
+        return cosine(i -> a.get(aPosition + i), i -> b.get(bPosition + i), a.remaining());
+    }
+
+    /**
+     * Fallback for the buffers that are not backed by accessible arrays, where element {@code i} of each input is read
+     * by the given function.
+     */
+    private static double cosine(IntToDoubleFunction a, IntToDoubleFunction b, int length) {
+        double numerator = 0;
+        double denominatorA = 0;
+        double denominatorB = 0;
+        for (int i = 0; i < length; i++) {
+            final double aNext = a.applyAsDouble(i);
+            final double bNext = b.applyAsDouble(i);
+            numerator += aNext * bNext;
+            denominatorA += aNext * aNext;
+            denominatorB += bNext * bNext;
+        }
+        return numerator / (Math.sqrt(denominatorA) * Math.sqrt(denominatorB));
+    }
+
     /**
      * Returns the Cosine similarity of the inputs that this instance was created from.
      *
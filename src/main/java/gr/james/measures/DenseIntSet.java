@@ -0,0 +1,134 @@
+package gr.james.measures;
+
+/**
+ * A set of {@code int} elements from a dense universe, backed by a bitset.
+ * <p>
+ * The universe of a {@link DenseIntSet} is the range {@code [0, universe)} and each element occupies a single bit of a
+ * {@code long[]} array. The set theoretic measures accept instances of this class and compute the intersection of two
+ * sets with a word-wise AND followed by {@link Long#bitCount(long)}, without any hashing or boxing. The universe plays
+ * the role of the world set in the measures that require one.
+ */
+public class DenseIntSet {
+    private final int universe;
+    private final long[] words;
+    private int size;
+
+    /**
+     * Create a new empty {@link DenseIntSet} with the given universe.
+     *
+     * @param universe the size of the universe
+     * @throws IllegalArgumentException if {@code universe} is negative
+     */
+    public DenseIntSet(int universe) {
+        if (universe < 0) {
+            throw new IllegalArgumentException("Universe cannot be negative");
+        }
+        this.universe = universe;
+        this.words = new long[(int) (((long) universe + 63) >>> 6)];
+        this.size = 0;
+    }
+
+    /**
+     * Adds the given element to this set.
+     *
+     * @param element the element to add
+     * @return {@code true} if this set did not already contain {@code element}
+     * @throws IndexOutOfBoundsException if {@code element} is outside {@code [0, universe)}
+     */
+    public boolean add(int element) {
+        checkElement(element);
+        final long mask = 1L << element;
+        final long word = this.words[element >>> 6];
+        if ((word & mask) != 0) {
+            return false;
+        }
+        this.words[element >>> 6] = word | mask;
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Removes the given element from this set.
+     *
+     * @param element the element to remove
+     * @return {@code true} if this set contained {@code element}
+     * @throws IndexOutOfBoundsException if {@code element} is outside {@code [0, universe)}
+     */
+    public boolean remove(int element) {
+        checkElement(element);
+        final long mask = 1L << element;
+        final long word = this.words[element >>> 6];
+        if ((word & mask) == 0) {
+            return false;
+        }
+        this.words[element >>> 6] = word & ~mask;
+        this.size--;
+        return true;
+    }
+
+    /**
+     * Returns whether this set contains the given element.
+     * <p>
+     * Elements outside the universe are never contained in the set.
+     *
+     * @param element the element to test
+     * @return {@code true} if this set contains {@code element}
+     */
+    public boolean contains(int element) {
+        return element >= 0 && element < this.universe && (this.words[element >>> 6] & (1L << element)) != 0;
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns whether this set is empty.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Returns the size of the universe of this set.
+     *
+     * @return the size of the universe of this set
+     */
+    public int universe() {
+        return this.universe;
+    }
+
+    /**
+     * Returns the number of elements in the intersection of this set and {@code other}.
+     *
+     * @param other the other set
+     * @return the number of elements in the intersection of this set and {@code other}
+     * @throws NullPointerException     if {@code other} is {@code null}
+     * @throws IllegalArgumentException if {@code other} has a different universe
+     */
+    public int intersection(DenseIntSet other) {
+        if (this.universe != other.universe) {
+            throw new IllegalArgumentException("Inputs must have the same universe");
+        }
+        final long[] x = this.words;
+        final long[] y = other.words;
+        int intersection = 0;
+        for (int i = 0; i < x.length; i++) {
+            intersection += Long.bitCount(x[i] & y[i]);
+        }
+        return intersection;
+    }
+
+    private void checkElement(int element) {
+        if (element < 0 || element >= this.universe) {
+            throw new IndexOutOfBoundsException("Element is outside the universe");
+        }
+    }
+}
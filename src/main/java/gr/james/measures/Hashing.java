@@ -0,0 +1,24 @@
+package gr.james.measures;
+
+/**
+ * Package-private hashing utilities shared by the sketches, indexes, counters and caches.
+ */
+final class Hashing {
+    private Hashing() {
+    }
+
+    /**
+     * The finalizer of the SplitMix64 generator.
+     * <p>
+     * Every bit of the input affects every bit of the output, so the result can be used as a hash of {@code x} or,
+     * applied to a counter, as a sequence of random bits.
+     *
+     * @param x the input
+     * @return the scrambled {@code x}
+     */
+    static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+}
@@ -18,28 +18,103 @@ public class Jaccard {
      * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
      */
     public <T> Jaccard(Set<T> a, Set<T> b) {
-        if (a.isEmpty() || b.isEmpty()) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Jaccard} from the given {@link DenseIntSet dense sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different universes
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Jaccard(DenseIntSet a, DenseIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Jaccard} from the given {@link SortedIntSet sorted sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Jaccard(SortedIntSet a, SortedIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Jaccard} from the given {@link SortedLongSet sorted sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Jaccard(SortedLongSet a, SortedLongSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Jaccard} from the given {@link CompressedIntSet compressed sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Jaccard(CompressedIntSet a, CompressedIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Jaccard} from the given {@link Contingency}.
+     *
+     * @param c the contingency table of the two sets
+     * @throws NullPointerException     if {@code c} is {@code null}
+     * @throws IllegalArgumentException if either set of {@code c} is empty
+     */
+    public Jaccard(Contingency c) {
+        if (c.sizeA() == 0 || c.sizeB() == 0) {
             throw new IllegalArgumentException("Inputs cannot be empty");
         }
-        Set<T> big;
-        Set<T> small;
-        if (a.size() > b.size()) {
-            big = a;
-            small = b;
-        } else {
-            big = b;
-            small = a;
+        this.value = (double) c.n11() / (double) c.union();
+        assert this.value >= 0 && this.value <= 1;
+    }
+
+    /**
+     * Create a new {@link Jaccard} estimate from the given {@link MinHash} sketches.
+     * <p>
+     * The value is the fraction of positions where the two signatures agree, which is an unbiased estimator of the
+     * Jaccard index of the two sets. The number of agreeing positions follows a binomial distribution, so for
+     * signatures of length {@code k} the standard error of the estimate is {@code sqrt(J(1-J)/k)}, which is at most
+     * {@code 1/(2 sqrt(k))}. For example, {@code k = 256} gives a standard error of at most {@code 0.03125} and
+     * {@code k = 1024} at most {@code 0.015625}. The estimator is additionally biased upwards by the probability of
+     * {@link Object#hashCode()} collisions between distinct elements.
+     *
+     * @param a one sketch
+     * @param b the other sketch
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different length or seed
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Jaccard(MinHash a, MinHash b) {
+        a.checkCompatible(b);
+        if (a.isEmpty() || b.isEmpty()) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
         }
-        int intersection = 0;
-        int union = big.size();
-        for (T t : small) {
-            if (big.contains(t)) {
-                intersection++;
-            } else {
-                union++;
+        final long[] x = a.signatureArray();
+        final long[] y = b.signatureArray();
+        int agree = 0;
+        for (int i = 0; i < x.length; i++) {
+            if (x[i] == y[i]) {
+                agree++;
             }
         }
-        this.value = (double) intersection / (double) union;
+        this.value = (double) agree / (double) x.length;
         assert this.value >= 0 && this.value <= 1;
     }
 
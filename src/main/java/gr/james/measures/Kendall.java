@@ -1,11 +1,28 @@
 package gr.james.measures;
 
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Kendall rank correlation coefficient implementation.
+ * <p>
+ * This implementation computes the tau-b variant, which accounts for ties in both inputs. Inputs that are not tiny
+ * are processed in {@code O(n log n)} time using Knight's merge sort based algorithm. The {@code int} and
+ * {@code double} array forms can also run on a {@link ForkJoinPool}, where both sorts of the algorithm are parallel
+ * merge sorts whose merges are also split between tasks, which is intended for very large inputs.
  */
 public class Kendall {
+    /**
+     * Inputs with fewer elements than this are processed by the quadratic algorithm.
+     */
+    static final int QUADRATIC_THRESHOLD = 32;
+    /**
+     * The number of elements that a single task of the parallel constructors sorts or merges before it stops splitting.
+     */
+    static final int LEAF_SIZE = 1 << 16;
+
     private final double value;
 
     /**
@@ -25,7 +42,110 @@ public class Kendall {
         if (a.size() != b.size()) {
             throw new IllegalArgumentException("Inputs must have the same size");
         }
+        if (a.size() < QUADRATIC_THRESHOLD) {
+            this.value = quadratic(a, b);
+        } else {
+            this.value = knight(Ranks.dense(a), Ranks.dense(b), null);
+        }
+    }
+
+    /**
+     * Create a new {@link Kendall} from the given {@code double} arrays.
+     * <p>
+     * Elements are compared using {@link Double#compare(double, double)}, which is consistent with the ordering of the
+     * boxed {@link Double} values in {@link #Kendall(List, List)}.
+     *
+     * @param a the one vector
+     * @param b the other vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Kendall(double[] a, double[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = knight(Ranks.dense(a), Ranks.dense(b), null);
+    }
+
+    /**
+     * Create a new {@link Kendall} from the given {@code double} arrays, processing them in parallel using the given
+     * {@link ForkJoinPool}.
+     * <p>
+     * The result is the same as the one of {@link #Kendall(double[], double[])}.
+     *
+     * @param a    the one vector
+     * @param b    the other vector
+     * @param pool the pool to execute the tasks in
+     * @throws NullPointerException     if any of {@code a}, {@code b} or {@code pool} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Kendall(double[] a, double[] b, ForkJoinPool pool) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+        this.value = knight(Ranks.dense(a, pool), Ranks.dense(b, pool), pool);
+    }
+
+    /**
+     * Create a new {@link Kendall} from the given {@code int} arrays.
+     * <p>
+     * This constructor will not modify the input arrays.
+     *
+     * @param a the one vector
+     * @param b the other vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Kendall(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = knight(a, b, null);
+    }
 
+    /**
+     * Create a new {@link Kendall} from the given {@code int} arrays, processing them in parallel using the given
+     * {@link ForkJoinPool}.
+     * <p>
+     * The result is the same as the one of {@link #Kendall(int[], int[])}. This constructor will not modify the input
+     * arrays.
+     *
+     * @param a    the one vector
+     * @param b    the other vector
+     * @param pool the pool to execute the tasks in
+     * @throws NullPointerException     if any of {@code a}, {@code b} or {@code pool} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Kendall(int[] a, int[] b, ForkJoinPool pool) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        if (pool == null) {
+            throw new NullPointerException();
+        }
+        this.value = knight(a, b, pool);
+    }
+
+    private static <T extends Comparable<T>> double quadratic(List<T> a, List<T> b) {
         long num = 0;
         long tiesA = 0;
         long tiesB = 0;
@@ -45,8 +165,319 @@ public class Kendall {
 
         long n = ((long) a.size() * ((long) a.size() - 1)) / 2;
 
-        this.value = num / (Math.sqrt(n - tiesA) * Math.sqrt(n - tiesB));
-        assert this.value >= -1 - 1e-4 && this.value <= 1 + 1e-4;
+        return tauB(num, n, tiesA, tiesB);
+    }
+
+    /**
+     * Knight's algorithm.
+     * <p>
+     * The pairs are sorted lexicographically by {@code (a, b)}, which exposes the ties in {@code a} and the joint ties.
+     * The resulting sequence of {@code b} is then merge sorted, counting the number of swaps, which equals the number
+     * of discordant pairs, and finally exposing the ties in {@code b}. If {@code pool} is not {@code null}, both sorts
+     * are parallel merge sorts on {@code pool}.
+     */
+    private static double knight(int[] a, int[] b, ForkJoinPool pool) {
+        final int size = a.length;
+
+        final long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = ((long) a[i] << 32) | ((long) b[i] - Integer.MIN_VALUE);
+        }
+        final long[] buffer = pool == null ? null : new long[size];
+        if (pool == null) {
+            Arrays.sort(keys);
+        } else {
+            sort(keys, buffer, false, pool);
+        }
+
+        long tiesA = 0;
+        long tiesJoint = 0;
+        long runA = 1;
+        long runJoint = 1;
+        for (int i = 1; i < size; i++) {
+            if ((keys[i] >> 32) == (keys[i - 1] >> 32)) {
+                runA++;
+                if (keys[i] == keys[i - 1]) {
+                    runJoint++;
+                } else {
+                    tiesJoint += runJoint * (runJoint - 1) / 2;
+                    runJoint = 1;
+                }
+            } else {
+                tiesA += runA * (runA - 1) / 2;
+                tiesJoint += runJoint * (runJoint - 1) / 2;
+                runA = 1;
+                runJoint = 1;
+            }
+        }
+        tiesA += runA * (runA - 1) / 2;
+        tiesJoint += runJoint * (runJoint - 1) / 2;
+
+        final long swaps;
+        long tiesB = 0;
+        long runB = 1;
+        if (pool == null) {
+            final int[] sortedB = new int[size];
+            for (int i = 0; i < size; i++) {
+                sortedB[i] = (int) ((keys[i] & 0xFFFFFFFFL) + Integer.MIN_VALUE);
+            }
+            swaps = mergeSort(sortedB);
+            for (int i = 1; i < size; i++) {
+                if (sortedB[i] == sortedB[i - 1]) {
+                    runB++;
+                } else {
+                    tiesB += runB * (runB - 1) / 2;
+                    runB = 1;
+                }
+            }
+        } else {
+            // The offset values of b keep their order as longs, so the keys can be reused in place
+            for (int i = 0; i < size; i++) {
+                keys[i] &= 0xFFFFFFFFL;
+            }
+            swaps = sort(keys, buffer, true, pool);
+            for (int i = 1; i < size; i++) {
+                if (keys[i] == keys[i - 1]) {
+                    runB++;
+                } else {
+                    tiesB += runB * (runB - 1) / 2;
+                    runB = 1;
+                }
+            }
+        }
+        tiesB += runB * (runB - 1) / 2;
+
+        final long n = ((long) size * ((long) size - 1)) / 2;
+        final long num = n - tiesA - tiesB + tiesJoint - 2 * swaps;
+
+        return tauB(num, n, tiesA, tiesB);
+    }
+
+    /**
+     * Sorts the given array in ascending order and returns the number of inversions, ie the number of pairs
+     * {@code i < j} with {@code x[i] > x[j]}.
+     */
+    static long mergeSort(int[] x) {
+        int[] source = x;
+        int[] target = new int[x.length];
+        long swaps = 0;
+        for (int width = 1; width < x.length; width <<= 1) {
+            for (int low = 0; low < x.length; low += width << 1) {
+                final int middle = Math.min(low + width, x.length);
+                final int high = Math.min(low + (width << 1), x.length);
+                swaps += merge(source, target, low, middle, high);
+            }
+            final int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != x) {
+            System.arraycopy(source, 0, x, 0, x.length);
+        }
+        return swaps;
+    }
+
+    /**
+     * Merges the sorted ranges {@code source[low, middle)} and {@code source[middle, high)} into
+     * {@code target[low, high)} and returns the number of inversions between the two ranges.
+     */
+    static long merge(int[] source, int[] target, int low, int middle, int high) {
+        long swaps = 0;
+        int i = low;
+        int j = middle;
+        int k = low;
+        while (i < middle && j < high) {
+            if (source[j] < source[i]) {
+                swaps += middle - i;
+                target[k++] = source[j++];
+            } else {
+                target[k++] = source[i++];
+            }
+        }
+        System.arraycopy(source, i, target, k, middle - i);
+        System.arraycopy(source, j, target, k + middle - i, high - j);
+        return swaps;
+    }
+
+    /**
+     * Sorts the given array in ascending order with a parallel merge sort on the given pool and returns the number of
+     * inversions if {@code count} is {@code true} or {@code 0} otherwise, in which case the leaves are sorted with the
+     * faster {@link Arrays#sort(long[], int, int)}. The buffer must have the same length as the array and its contents
+     * are overwritten.
+     */
+    static long sort(long[] x, long[] buffer, boolean count, ForkJoinPool pool) {
+        return pool.invoke(new SortTask(x, buffer, 0, x.length, false, count));
+    }
+
+    /**
+     * Sorts the range {@code x[from, to)} in ascending order, using {@code buffer[from, to)} as scratch space, and
+     * returns the number of inversions in the range.
+     */
+    static long mergeSort(long[] x, long[] buffer, int from, int to) {
+        long[] source = x;
+        long[] target = buffer;
+        long swaps = 0;
+        for (int width = 1; width < to - from; width <<= 1) {
+            for (int low = from; low < to; low += width << 1) {
+                final int middle = Math.min(low + width, to);
+                final int high = Math.min(low + (width << 1), to);
+                swaps += merge(source, low, middle, middle, high, target, low);
+            }
+            final long[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != x) {
+            System.arraycopy(source, from, x, from, to - from);
+        }
+        return swaps;
+    }
+
+    /**
+     * Merges the sorted ranges {@code source[i, endI)} and {@code source[j, endJ)}, where the first range precedes the
+     * second in the sequence being sorted, into {@code target} starting at {@code k} and returns the number of
+     * inversions between the two ranges.
+     */
+    static long merge(long[] source, int i, int endI, int j, int endJ, long[] target, int k) {
+        long swaps = 0;
+        while (i < endI && j < endJ) {
+            if (source[j] < source[i]) {
+                swaps += endI - i;
+                target[k++] = source[j++];
+            } else {
+                target[k++] = source[i++];
+            }
+        }
+        System.arraycopy(source, i, target, k, endI - i);
+        System.arraycopy(source, j, target, k + endI - i, endJ - j);
+        return swaps;
+    }
+
+    /**
+     * Sorts {@code x[from, to)} into either {@code x} or {@code y}, using the same range of the other array as scratch
+     * space, and returns the number of inversions. The halves are sorted into the other array so that their merge
+     * lands in the requested one without copying.
+     */
+    private static final class SortTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] x;
+        private final long[] y;
+        private final int from;
+        private final int to;
+        private final boolean intoY;
+        private final boolean count;
+
+        SortTask(long[] x, long[] y, int from, int to, boolean intoY, boolean count) {
+            this.x = x;
+            this.y = y;
+            this.from = from;
+            this.to = to;
+            this.intoY = intoY;
+            this.count = count;
+        }
+
+        @Override
+        protected Long compute() {
+            if (this.to - this.from <= LEAF_SIZE) {
+                long swaps = 0;
+                if (this.count) {
+                    swaps = mergeSort(this.x, this.y, this.from, this.to);
+                } else {
+                    Arrays.sort(this.x, this.from, this.to);
+                }
+                if (this.intoY) {
+                    System.arraycopy(this.x, this.from, this.y, this.from, this.to - this.from);
+                }
+                return swaps;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            final SortTask right = new SortTask(this.x, this.y, middle, this.to, !this.intoY, this.count);
+            right.fork();
+            long swaps = new SortTask(this.x, this.y, this.from, middle, !this.intoY, this.count).compute();
+            swaps += right.join();
+            final long[] source = this.intoY ? this.x : this.y;
+            final long[] target = this.intoY ? this.y : this.x;
+            return swaps + new MergeTask(source, this.from, middle, middle, this.to, target, this.from).compute();
+        }
+    }
+
+    /**
+     * Merges {@code source[lowA, highA)} and {@code source[lowB, highB)} into {@code target} starting at {@code k} and
+     * returns the number of inversions between them.
+     * <p>
+     * The larger range is split at its middle element and the other range at the position of that element, which
+     * leaves two independent merges. Every element of the right part of the first range is then greater than every
+     * element of the left part of the second range, while no other pair across the split is inverted.
+     */
+    private static final class MergeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] source;
+        private final int lowA;
+        private final int highA;
+        private final int lowB;
+        private final int highB;
+        private final long[] target;
+        private final int k;
+
+        MergeTask(long[] source, int lowA, int highA, int lowB, int highB, long[] target, int k) {
+            this.source = source;
+            this.lowA = lowA;
+            this.highA = highA;
+            this.lowB = lowB;
+            this.highB = highB;
+            this.target = target;
+            this.k = k;
+        }
+
+        @Override
+        protected Long compute() {
+            if ((this.highA - this.lowA) + (this.highB - this.lowB) <= LEAF_SIZE) {
+                return merge(this.source, this.lowA, this.highA, this.lowB, this.highB, this.target, this.k);
+            }
+            final int i;
+            final int j;
+            if (this.highA - this.lowA >= this.highB - this.lowB) {
+                i = (this.lowA + this.highA) >>> 1;
+                j = search(this.source, this.lowB, this.highB, this.source[i], false);
+            } else {
+                j = (this.lowB + this.highB) >>> 1;
+                i = search(this.source, this.lowA, this.highA, this.source[j], true);
+            }
+            final MergeTask right = new MergeTask(
+                    this.source, i, this.highA, j, this.highB, this.target, this.k + (i - this.lowA) + (j - this.lowB)
+            );
+            right.fork();
+            final long swaps = new MergeTask(this.source, this.lowA, i, this.lowB, j, this.target, this.k).compute();
+            return swaps + right.join() + (long) (this.highA - i) * (j - this.lowB);
+        }
+
+        /**
+         * Returns the first index in the sorted range {@code x[low, high)} whose element is greater than {@code key},
+         * or greater than or equal to it if {@code inclusive} is {@code false}.
+         */
+        private static int search(long[] x, int low, int high, long key, boolean inclusive) {
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (x[middle] < key || (inclusive && x[middle] == key)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Returns the tau-b from the difference of concordant and discordant pairs, the number of pairs and the number of
+     * pairs tied in each input.
+     */
+    static double tauB(long num, long n, long tiesA, long tiesB) {
+        final double value = num / (Math.sqrt(n - tiesA) * Math.sqrt(n - tiesB));
+        assert Double.isNaN(value) || (value >= -1 - 1e-4 && value <= 1 + 1e-4);
+        return value;
     }
 
     /**
@@ -0,0 +1,279 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+
+/**
+ * Incremental accumulator of the Kendall rank correlation coefficient of a growing sequence of pairs.
+ * <p>
+ * The pairs may be added in any order. Each new pair is compared with all previous pairs by counting the previous
+ * pairs that are less than or equal to it in either coordinate and in both, which is a two-dimensional dominance
+ * counting problem. The previous pairs are kept with the logarithmic method, as a small unsorted buffer and a
+ * sequence of static levels whose sizes are distinct powers of two, like the digits of a binary counter, and when the
+ * buffer fills it is merged with the smallest levels into a new level. Each level keeps its pairs sorted by the first
+ * coordinate and a wavelet matrix of the ranks of their second coordinates, which counts the pairs of any prefix with
+ * a smaller second coordinate in {@code O(log n)} time. Adding a pair therefore takes {@code O(log^2 n)} amortized
+ * time and the tau-b variant can be read at any time in {@code O(1)} time. When the pairs arrive in order of their
+ * first coordinate, for example by timestamp, every level is counted with binary searches alone, which is several
+ * times faster. The result is the same as the one of {@link Kendall#Kendall(double[], double[])} on the pairs added
+ * so far.
+ * <p>
+ * Elements are compared using {@link Double#compare(double, double)}. Instances of this class are not thread-safe.
+ */
+public class KendallAccumulator {
+    /**
+     * The number of pairs that are compared linearly before they are merged into a level.
+     */
+    static final int BUFFER_SIZE = 64;
+
+    private final double[] bufferA;
+    private final double[] bufferB;
+    private int buffered;
+    /**
+     * The level at index {@code h} is either {@code null} or has {@code BUFFER_SIZE << h} pairs.
+     */
+    private Level[] levels;
+    private long count;
+    private long num;
+    private long tiesA;
+    private long tiesB;
+
+    /**
+     * Create a new empty {@link KendallAccumulator}.
+     */
+    public KendallAccumulator() {
+        this.bufferA = new double[BUFFER_SIZE];
+        this.bufferB = new double[BUFFER_SIZE];
+        this.buffered = 0;
+        this.levels = new Level[0];
+    }
+
+    /**
+     * Adds a pair.
+     *
+     * @param a the first coordinate
+     * @param b the second coordinate
+     */
+    public void add(double a, double b) {
+        for (int i = 0; i < this.buffered; i++) {
+            final int orderA = Integer.signum(Double.compare(this.bufferA[i], a));
+            final int orderB = Integer.signum(Double.compare(this.bufferB[i], b));
+            this.num += orderA * orderB;
+            this.tiesA += 1 - orderA * orderA;
+            this.tiesB += 1 - orderB * orderB;
+        }
+        for (Level level : this.levels) {
+            if (level != null) {
+                compare(level, a, b);
+            }
+        }
+        this.bufferA[this.buffered] = a;
+        this.bufferB[this.buffered] = b;
+        this.count++;
+        if (++this.buffered == BUFFER_SIZE) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns the number of pairs added to this accumulator.
+     *
+     * @return the number of pairs added to this accumulator
+     */
+    public long count() {
+        return this.count;
+    }
+
+    /**
+     * Returns the Kendall rank correlation coefficient of the pairs added to this accumulator.
+     *
+     * @return the Kendall rank correlation coefficient of the pairs added to this accumulator or {@link Double#NaN} if
+     * fewer than two pairs have been added or either coordinate is constant
+     */
+    public double value() {
+        return Kendall.tauB(this.num, this.count * (this.count - 1) / 2, this.tiesA, this.tiesB);
+    }
+
+    private void compare(Level level, double a, double b) {
+        final int size = level.a.length;
+        final int lessA = bound(level.a, a, false);
+        final int notGreaterA = bound(level.a, a, true);
+        final int lessB = bound(level.sortedB, b, false);
+        final int notGreaterB = bound(level.sortedB, b, true);
+        // Most pairs are not tied with the level, and then the inclusive counts are the strict ones
+        final long lessLess = level.countLess(lessA, lessB);
+        final long lessNotGreater = lessB == notGreaterB ? lessLess : level.countLess(lessA, notGreaterB);
+        final long notGreaterLess = lessA == notGreaterA ? lessLess : level.countLess(notGreaterA, lessB);
+        final long notGreaterNotGreater;
+        if (lessA == notGreaterA) {
+            notGreaterNotGreater = lessNotGreater;
+        } else if (lessB == notGreaterB) {
+            notGreaterNotGreater = notGreaterLess;
+        } else {
+            notGreaterNotGreater = level.countLess(notGreaterA, notGreaterB);
+        }
+        // Concordant pairs are less or greater in both coordinates and discordant pairs are less in exactly one
+        final long greaterGreater = size - notGreaterA - notGreaterB + notGreaterNotGreater;
+        this.num += lessLess + greaterGreater - (lessA - lessNotGreater) - (lessB - notGreaterLess);
+        this.tiesA += notGreaterA - lessA;
+        this.tiesB += notGreaterB - lessB;
+    }
+
+    private void flush() {
+        double[] a = this.bufferA.clone();
+        double[] b = this.bufferB.clone();
+        for (int i = 1; i < a.length; i++) {
+            final double keyA = a[i];
+            final double keyB = b[i];
+            int j = i - 1;
+            while (j >= 0 && Double.compare(a[j], keyA) > 0) {
+                a[j + 1] = a[j];
+                b[j + 1] = b[j];
+                j--;
+            }
+            a[j + 1] = keyA;
+            b[j + 1] = keyB;
+        }
+        int h = 0;
+        while (h < this.levels.length && this.levels[h] != null) {
+            final Level level = this.levels[h];
+            final double[] mergedA = new double[a.length + level.a.length];
+            final double[] mergedB = new double[mergedA.length];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < mergedA.length; k++) {
+                if (j == level.a.length || (i < a.length && Double.compare(a[i], level.a[j]) <= 0)) {
+                    mergedA[k] = a[i];
+                    mergedB[k] = b[i++];
+                } else {
+                    mergedA[k] = level.a[j];
+                    mergedB[k] = level.b[j++];
+                }
+            }
+            a = mergedA;
+            b = mergedB;
+            this.levels[h++] = null;
+        }
+        if (h == this.levels.length) {
+            this.levels = Arrays.copyOf(this.levels, h + 1);
+        }
+        this.levels[h] = new Level(a, b);
+        this.buffered = 0;
+    }
+
+    /**
+     * Returns the number of values in the sorted {@code x} that are less than {@code key}, or less than or equal to it
+     * if {@code inclusive} is {@code true}.
+     */
+    private static int bound(double[] x, double key, boolean inclusive) {
+        int low = 0;
+        int high = x.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int order = Double.compare(x[middle], key);
+            if (order < 0 || (inclusive && order == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Static set of pairs sorted by their first coordinate, with a wavelet matrix over the ranks of their second
+     * coordinates. The rank of a second coordinate is the number of second coordinates of the level that are less than
+     * it, so a pair has a smaller second coordinate than {@code b} if and only if its rank is less than the number of
+     * second coordinates less than {@code b}, and likewise for less than or equal.
+     */
+    private static final class Level {
+        private final double[] a;
+        private final double[] b;
+        private final double[] sortedB;
+        /**
+         * The rows of the wavelet matrix, from the most significant bit, where each word of bits is preceded by the
+         * number of ones before it so that both share a cache line, and the number of zeros of each row.
+         */
+        private final long[][] rows;
+        private final int[] zeros;
+
+        Level(double[] a, double[] b) {
+            final int size = a.length;
+            this.a = a;
+            this.b = b;
+            this.sortedB = b.clone();
+            Arrays.sort(this.sortedB);
+            int[] values = new int[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = bound(this.sortedB, b[i], false);
+            }
+            final int height = 32 - Integer.numberOfLeadingZeros(size);
+            this.rows = new long[height][];
+            this.zeros = new int[height];
+            int[] next = new int[size];
+            for (int row = 0; row < height; row++) {
+                final int shift = height - 1 - row;
+                final long[] words = new long[2 * ((size >>> 6) + 1)];
+                int rowZeros = 0;
+                for (int i = 0; i < size; i++) {
+                    if (((values[i] >>> shift) & 1) != 0) {
+                        words[2 * (i >>> 6) + 1] |= 1L << i;
+                    } else {
+                        rowZeros++;
+                    }
+                }
+                for (int w = 2; w < words.length; w += 2) {
+                    words[w] = words[w - 2] + Long.bitCount(words[w - 1]);
+                }
+                // Stable partition of the values by the bit of the row, zeros first, which orders the next row
+                int zero = 0;
+                int one = rowZeros;
+                for (int i = 0; i < size; i++) {
+                    if (((values[i] >>> shift) & 1) != 0) {
+                        next[one++] = values[i];
+                    } else {
+                        next[zero++] = values[i];
+                    }
+                }
+                final int[] swap = values;
+                values = next;
+                next = swap;
+                this.rows[row] = words;
+                this.zeros[row] = rowZeros;
+            }
+        }
+
+        /**
+         * Returns the number of the first {@code prefix} pairs whose rank is less than {@code rank}.
+         */
+        long countLess(int prefix, int rank) {
+            // Pairs that arrive in order of their first coordinate always query the whole level
+            if (prefix == this.a.length) {
+                return rank;
+            }
+            long count = 0;
+            int low = 0;
+            int high = prefix;
+            for (int row = 0; row < this.rows.length && low < high; row++) {
+                final int lowOnes = ones(this.rows[row], low);
+                final int highOnes = ones(this.rows[row], high);
+                if (((rank >>> (this.rows.length - 1 - row)) & 1) != 0) {
+                    count += (high - highOnes) - (low - lowOnes);
+                    low = this.zeros[row] + lowOnes;
+                    high = this.zeros[row] + highOnes;
+                } else {
+                    low -= lowOnes;
+                    high -= highOnes;
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Returns the number of ones before position {@code i} of the given row.
+         */
+        private static int ones(long[] row, int i) {
+            final int w = 2 * (i >>> 6);
+            return (int) row[w] + Long.bitCount(row[w + 1] & ((1L << i) - 1));
+        }
+    }
+}
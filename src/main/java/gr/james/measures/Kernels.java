@@ -0,0 +1,89 @@
+package gr.james.measures;
+
+/**
+ * Package-private numeric kernels shared by the vector measures.
+ * <p>
+ * This is the Java 8 implementation, which delegates to the unrolled loops of {@link UnrolledKernels}. The
+ * multi-release JAR contains a replacement of this class for Java 17 and later that uses the {@code
+ * jdk.incubator.vector} module instead, when that module is present in the boot layer.
+ * <p>
+ * All kernels accumulate their sums in several independent partial sums, so their results differ from a sequential
+ * loop over the same elements only in the order of summation. The tests require the results to be within
+ * {@link #TOLERANCE} of the sequential loop for standard normal inputs.
+ */
+final class Kernels {
+    /**
+     * The tolerance, relative to the sequential loop, that the kernels are validated against.
+     */
+    static final double TOLERANCE = 1e-12;
+
+    /**
+     * Whether the kernels are executed using the Vector API.
+     */
+    static final boolean VECTOR = false;
+
+    private Kernels() {
+    }
+
+    /**
+     * Returns the sum of {@code x[offset, offset + length)}.
+     */
+    static double sum(double[] x, int offset, int length) {
+        return UnrolledKernels.sum(x, offset, length);
+    }
+
+    /**
+     * Returns the dot product of {@code a[aOffset, aOffset + length)} and {@code b[bOffset, bOffset + length)}.
+     */
+    static double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        return UnrolledKernels.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Returns the Cosine similarity of {@code a[aOffset, aOffset + length)} and {@code b[bOffset, bOffset + length)}.
+     */
+    static double cosine(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        return UnrolledKernels.cosine(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Returns the Pearson correlation coefficient of {@code a[aOffset, aOffset + length)} and
+     * {@code b[bOffset, bOffset + length)} using the two-pass algorithm.
+     */
+    static double pearson(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        return UnrolledKernels.pearson(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Stores the co-moment and the sums of squares of {@code a[aOffset, aOffset + length)} and
+     * {@code b[bOffset, bOffset + length)}, after subtracting {@code shiftA} and {@code shiftB} respectively, in
+     * {@code out[0]}, {@code out[1]} and {@code out[2]}.
+     */
+    static void moments(double[] a, int aOffset, double shiftA, double[] b, int bOffset, double shiftB, int length,
+                        double[] out) {
+        UnrolledKernels.moments(a, aOffset, shiftA, b, bOffset, shiftB, length, out);
+    }
+
+    /**
+     * Returns the sum of {@code x[offset, offset + length)} accumulated in {@code double}.
+     */
+    static double sum(float[] x, int offset, int length) {
+        return UnrolledKernels.sum(x, offset, length);
+    }
+
+    /**
+     * Returns the Cosine similarity of {@code a[aOffset, aOffset + length)} and {@code b[bOffset, bOffset + length)}
+     * accumulated in {@code double}.
+     */
+    static double cosine(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return UnrolledKernels.cosine(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Returns the Pearson correlation coefficient of {@code a[aOffset, aOffset + length)} and
+     * {@code b[bOffset, bOffset + length)} accumulated in {@code double} using the two-pass algorithm.
+     */
+    static double pearson(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return UnrolledKernels.pearson(a, aOffset, b, bOffset, length);
+    }
+}
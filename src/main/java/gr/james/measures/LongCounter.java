@@ -0,0 +1,126 @@
+package gr.james.measures;
+
+/**
+ * Package-private open addressing hash map from {@code long} keys to positive {@code long} counts.
+ * <p>
+ * The map uses linear probing over power of two tables that are at most half full. A slot is empty when its count is
+ * zero, so any {@code long} can be a key. Keys are scrambled with the SplitMix64 finalizer before probing.
+ */
+final class LongCounter {
+    private long[] keys;
+    private long[] counts;
+    private int size;
+
+    LongCounter() {
+        this(16);
+    }
+
+    LongCounter(int expected) {
+        int capacity = 16;
+        while (capacity < 2L * expected) {
+            capacity <<= 1;
+        }
+        this.keys = new long[capacity];
+        this.counts = new long[capacity];
+        this.size = 0;
+    }
+
+    /**
+     * Adds {@code delta}, which must be positive, to the count of {@code key}.
+     */
+    void add(long key, long delta) {
+        final int mask = this.keys.length - 1;
+        int slot = (int) Hashing.mix(key) & mask;
+        while (this.counts[slot] != 0) {
+            if (this.keys[slot] == key) {
+                this.counts[slot] += delta;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        this.keys[slot] = key;
+        this.counts[slot] = delta;
+        if (++this.size * 2 > this.keys.length) {
+            grow();
+        }
+    }
+
+    /**
+     * Returns the count of {@code key} or {@code 0} if it is absent.
+     */
+    long get(long key) {
+        final int mask = this.keys.length - 1;
+        int slot = (int) Hashing.mix(key) & mask;
+        while (this.counts[slot] != 0) {
+            if (this.keys[slot] == key) {
+                return this.counts[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return 0;
+    }
+
+    /**
+     * Adds the counts of {@code other} to this map.
+     */
+    void merge(LongCounter other) {
+        for (int slot = 0; slot < other.keys.length; slot++) {
+            if (other.counts[slot] != 0) {
+                add(other.keys[slot], other.counts[slot]);
+            }
+        }
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of slots, which is the exclusive upper bound of the slots of {@link #key(int)} and
+     * {@link #count(int)}.
+     */
+    int capacity() {
+        return this.keys.length;
+    }
+
+    /**
+     * Returns the key at {@code slot}, which is only meaningful if {@link #count(int)} is positive.
+     */
+    long key(int slot) {
+        return this.keys[slot];
+    }
+
+    /**
+     * Returns the count at {@code slot} or {@code 0} if the slot is empty.
+     */
+    long count(int slot) {
+        return this.counts[slot];
+    }
+
+    /**
+     * Returns the positive counts in slot order.
+     */
+    long[] counts() {
+        final long[] result = new long[this.size];
+        int i = 0;
+        for (long count : this.counts) {
+            if (count != 0) {
+                result[i++] = count;
+            }
+        }
+        return result;
+    }
+
+    private void grow() {
+        final long[] oldKeys = this.keys;
+        final long[] oldCounts = this.counts;
+        this.keys = new long[oldKeys.length * 2];
+        this.counts = new long[oldCounts.length * 2];
+        this.size = 0;
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldCounts[slot] != 0) {
+                add(oldKeys[slot], oldCounts[slot]);
+            }
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package gr.james.measures;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Bounded cache of the values of a measure between pairs of inputs that are identified by the caller.
+ * <p>
+ * The measures of this package compute their value eagerly in their constructor, so repeated queries of the same pair
+ * repeat the whole computation. A cache maps a pair of caller-provided stable ids and a version stamp to the value of
+ * the measure between the two inputs, and computes the value with the given {@link DoubleSupplier} only when it is
+ * absent. The version stamp is part of the key, so increasing it when any input changes makes the stale entries
+ * unreachable, and they are eventually evicted. All measures of this package are symmetric, so the pairs
+ * {@code (a, b)} and {@code (b, a)} share the same entry. A cache should hold the values of a single measure.
+ * <p>
+ * The entries are split among independently locked stripes by the hash of their key, so that many request threads
+ * rarely contend, and each stripe evicts its least recently used entries when it exceeds its share of the capacity.
+ * The value of a missing entry is computed outside of the lock, so concurrent misses on the same key may compute the
+ * value more than once. The numbers of hits and misses are counted without locking.
+ * <p>
+ * Instances of this class are thread-safe.
+ */
+public class MeasureCache {
+    private final Stripe[] stripes;
+    private final LongAdder hits;
+    private final LongAdder misses;
+
+    /**
+     * Create a new empty {@link MeasureCache} with the given capacity and a number of stripes suitable for the number
+     * of available processors.
+     *
+     * @param capacity the maximum number of entries
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     */
+    public MeasureCache(int capacity) {
+        this(capacity, Integer.highestOneBit(Math.min(capacity, 4 * Runtime.getRuntime().availableProcessors())));
+    }
+
+    /**
+     * Create a new empty {@link MeasureCache} with the given capacity and number of stripes.
+     * <p>
+     * The capacity is divided evenly among the stripes.
+     *
+     * @param capacity the maximum number of entries
+     * @param stripes  the number of stripes, which must be a power of two not greater than {@code capacity}
+     * @throws IllegalArgumentException if {@code capacity} is not positive
+     * @throws IllegalArgumentException if {@code stripes} is not a power of two or is greater than {@code capacity}
+     */
+    public MeasureCache(int capacity, int stripes) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1 || stripes > capacity) {
+            throw new IllegalArgumentException("Stripes must be a power of two not greater than the capacity");
+        }
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(capacity / stripes + (i < capacity % stripes ? 1 : 0));
+        }
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+    }
+
+    /**
+     * Returns the value of the measure between the inputs with the given ids at the given version, computing it with
+     * {@code measure} if it is not cached.
+     * <p>
+     * If {@code measure} throws an exception, the exception is propagated and nothing is cached.
+     *
+     * @param a       the id of the one input
+     * @param b       the id of the other input
+     * @param version the version stamp of the inputs
+     * @param measure the computation of the value, for example {@code () -> new Jaccard(setA, setB).value()}
+     * @return the value of the measure between the inputs with ids {@code a} and {@code b} at {@code version}
+     * @throws NullPointerException if {@code measure} is {@code null} and the value is not cached
+     */
+    public double get(long a, long b, long version, DoubleSupplier measure) {
+        final Key key = new Key(Math.min(a, b), Math.max(a, b), version);
+        final Stripe stripe = this.stripes[(int) Hashing.mix(key.hashCode()) & (this.stripes.length - 1)];
+        final Double cached;
+        synchronized (stripe) {
+            cached = stripe.get(key);
+        }
+        if (cached != null) {
+            this.hits.increment();
+            return cached;
+        }
+        this.misses.increment();
+        final double value = measure.getAsDouble();
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Removes all entries from this cache.
+     * <p>
+     * The numbers of hits and misses are not reset.
+     */
+    public void clear() {
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of entries in this cache.
+     *
+     * @return the number of entries in this cache
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : this.stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of queries that found their value in this cache.
+     *
+     * @return the number of queries that found their value in this cache
+     */
+    public long hits() {
+        return this.hits.sum();
+    }
+
+    /**
+     * Returns the number of queries that computed their value.
+     *
+     * @return the number of queries that computed their value
+     */
+    public long misses() {
+        return this.misses.sum();
+    }
+
+    private static final class Key {
+        private final long a;
+        private final long b;
+        private final long version;
+
+        Key(long a, long b, long version) {
+            this.a = a;
+            this.b = b;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key other = (Key) obj;
+            return this.a == other.a && this.b == other.b && this.version == other.version;
+        }
+
+        @Override
+        public int hashCode() {
+            final long h = (this.a * 0x9E3779B97F4A7C15L + this.b) * 0x9E3779B97F4A7C15L + this.version;
+            return Long.hashCode(Hashing.mix(h));
+        }
+    }
+
+    /**
+     * A least recently used map of a fixed capacity.
+     */
+    private static final class Stripe extends LinkedHashMap<Key, Double> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Stripe(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Double> eldest) {
+            return size() > this.capacity;
+        }
+    }
+}
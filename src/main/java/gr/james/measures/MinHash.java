@@ -0,0 +1,143 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * MinHash sketch of a set.
+ * <p>
+ * A sketch of length {@code k} keeps, for each of {@code k} hash functions, the minimum hash value over the elements
+ * of the set. The probability that two sketches agree on a given position is equal to the Jaccard index of the two
+ * sets, so the fraction of agreeing positions is an unbiased estimator of the Jaccard index; see
+ * {@link Jaccard#Jaccard(MinHash, MinHash)}.
+ * <p>
+ * The hash functions are derived from the {@link Object#hashCode()} of the elements and a seed. Only sketches with the
+ * same length and seed can be compared or merged. Sketches are mergeable: the sketch of the union of two sets is the
+ * position-wise minimum of their sketches, which is what {@link #merge(MinHash)} computes.
+ */
+public class MinHash {
+    private final long seed;
+    private final long[] seeds;
+    private final long[] signature;
+    private boolean empty;
+
+    /**
+     * Create a new {@link MinHash} sketch of the empty set.
+     *
+     * @param length the length of the signature
+     * @param seed   the seed of the hash family
+     * @throws IllegalArgumentException if {@code length} is not positive
+     */
+    public MinHash(int length, long seed) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Length must be positive");
+        }
+        this.seed = seed;
+        this.seeds = new long[length];
+        for (int i = 0; i < length; i++) {
+            this.seeds[i] = Hashing.mix(seed + (i + 1) * 0x9E3779B97F4A7C15L);
+        }
+        this.signature = new long[length];
+        Arrays.fill(this.signature, Long.MAX_VALUE);
+        this.empty = true;
+    }
+
+    /**
+     * Create a new {@link MinHash} sketch of the given set.
+     *
+     * @param set    the set
+     * @param length the length of the signature
+     * @param seed   the seed of the hash family
+     * @param <T>    the type of elements in the set
+     * @throws NullPointerException     if {@code set} is {@code null} or contains {@code null} elements
+     * @throws IllegalArgumentException if {@code length} is not positive
+     */
+    public <T> MinHash(Set<T> set, int length, long seed) {
+        this(length, seed);
+        for (T t : set) {
+            add(t);
+        }
+    }
+
+    /**
+     * Adds the given element to the set that this sketch represents.
+     *
+     * @param element the element to add
+     * @throws NullPointerException if {@code element} is {@code null}
+     */
+    public void add(Object element) {
+        final long hash = Hashing.mix(element.hashCode());
+        for (int i = 0; i < this.signature.length; i++) {
+            final long h = Hashing.mix(hash ^ this.seeds[i]);
+            if (h < this.signature[i]) {
+                this.signature[i] = h;
+            }
+        }
+        this.empty = false;
+    }
+
+    /**
+     * Merges the given sketch into this sketch.
+     * <p>
+     * After this method returns, this sketch represents the union of the two sets.
+     *
+     * @param other the other sketch
+     * @throws NullPointerException     if {@code other} is {@code null}
+     * @throws IllegalArgumentException if {@code other} has a different length or seed
+     */
+    public void merge(MinHash other) {
+        checkCompatible(other);
+        for (int i = 0; i < this.signature.length; i++) {
+            if (other.signature[i] < this.signature[i]) {
+                this.signature[i] = other.signature[i];
+            }
+        }
+        this.empty &= other.empty;
+    }
+
+    /**
+     * Returns the length of the signature of this sketch.
+     *
+     * @return the length of the signature of this sketch
+     */
+    public int length() {
+        return this.signature.length;
+    }
+
+    /**
+     * Returns the seed of the hash family of this sketch.
+     *
+     * @return the seed of the hash family of this sketch
+     */
+    public long seed() {
+        return this.seed;
+    }
+
+    /**
+     * Returns whether this sketch represents the empty set.
+     *
+     * @return {@code true} if no elements have been added to this sketch
+     */
+    public boolean isEmpty() {
+        return this.empty;
+    }
+
+    /**
+     * Returns a copy of the signature of this sketch.
+     *
+     * @return a copy of the signature of this sketch
+     */
+    public long[] signature() {
+        return this.signature.clone();
+    }
+
+    long[] signatureArray() {
+        return this.signature;
+    }
+
+    void checkCompatible(MinHash other) {
+        if (this.signature.length != other.signature.length || this.seed != other.seed) {
+            throw new IllegalArgumentException("Sketches must have the same length and seed");
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package gr.james.measures;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Locality-sensitive hashing index for Jaccard similarity queries over {@link MinHash} sketches.
+ * <p>
+ * The signature of each sketch is split into {@code bands} bands of {@code rows} rows each and two sketches become
+ * candidates of each other if they agree on every row of at least one band. For two sets with Jaccard index
+ * {@code J}, the probability of becoming candidates is {@code 1 - (1 - J^rows)^bands}, which is an S-shaped curve
+ * with a threshold of approximately {@code (1/bands)^(1/rows)}. For example, {@code 20} bands of {@code 5} rows
+ * place the threshold near {@code 0.55}, while {@code 16} bands of {@code 16} rows place it near {@code 0.84}.
+ * Increasing {@code bands} reduces the false negatives and increasing {@code rows} reduces the false positives.
+ * <p>
+ * Candidate generation only inspects the buckets of the query, so it is sub-linear in the number of indexed sketches.
+ * The candidates can be further filtered by their estimated Jaccard index with {@link #query(MinHash, double)} or by
+ * their exact Jaccard index with {@link #query(Set, MinHash, double, Function)}.
+ * <p>
+ * The sketches inserted in this index are stored by reference and must not be modified afterwards.
+ *
+ * @param <K> the type of keys that identify the indexed sets
+ */
+public class MinHashIndex<K> {
+    private final int bands;
+    private final int rows;
+    private final List<Map<Long, Set<K>>> buckets;
+    private final Map<K, MinHash> sketches;
+    private MinHash reference;
+
+    /**
+     * Create a new empty {@link MinHashIndex} with the given banding.
+     *
+     * @param bands the number of bands
+     * @param rows  the number of rows in each band
+     * @throws IllegalArgumentException if either {@code bands} or {@code rows} is not positive
+     */
+    public MinHashIndex(int bands, int rows) {
+        if (bands <= 0 || rows <= 0) {
+            throw new IllegalArgumentException("Bands and rows must be positive");
+        }
+        this.bands = bands;
+        this.rows = rows;
+        this.buckets = new ArrayList<>(bands);
+        for (int i = 0; i < bands; i++) {
+            this.buckets.add(new HashMap<>());
+        }
+        this.sketches = new HashMap<>();
+        this.reference = null;
+    }
+
+    /**
+     * Inserts the given sketch in this index with the given key, replacing any sketch previously associated with the
+     * key.
+     *
+     * @param key    the key of the set
+     * @param sketch the sketch of the set
+     * @throws NullPointerException     if either {@code key} or {@code sketch} is {@code null}
+     * @throws IllegalArgumentException if the length of {@code sketch} is less than {@code bands * rows}
+     * @throws IllegalArgumentException if {@code sketch} has a different length or seed than the sketches already in
+     *                                  this index
+     */
+    public void insert(K key, MinHash sketch) {
+        if (key == null) {
+            throw new NullPointerException();
+        }
+        check(sketch);
+        remove(key);
+        this.reference = sketch;
+        this.sketches.put(key, sketch);
+        for (int band = 0; band < this.bands; band++) {
+            this.buckets.get(band).computeIfAbsent(bandHash(sketch, band), k -> new HashSet<>()).add(key);
+        }
+    }
+
+    /**
+     * Removes the sketch with the given key from this index.
+     *
+     * @param key the key of the set
+     * @return {@code true} if this index contained {@code key}
+     */
+    public boolean remove(K key) {
+        final MinHash sketch = this.sketches.remove(key);
+        if (sketch == null) {
+            return false;
+        }
+        for (int band = 0; band < this.bands; band++) {
+            final Long hash = bandHash(sketch, band);
+            final Set<K> bucket = this.buckets.get(band).get(hash);
+            bucket.remove(key);
+            if (bucket.isEmpty()) {
+                this.buckets.get(band).remove(hash);
+            }
+        }
+        if (this.sketches.isEmpty()) {
+            this.reference = null;
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of sketches in this index.
+     *
+     * @return the number of sketches in this index
+     */
+    public int size() {
+        return this.sketches.size();
+    }
+
+    /**
+     * Returns the keys of the sketches that agree with the given sketch on at least one band.
+     *
+     * @param sketch the query sketch
+     * @return a new set with the keys of the candidates of {@code sketch}
+     * @throws NullPointerException     if {@code sketch} is {@code null}
+     * @throws IllegalArgumentException if {@code sketch} is not compatible with the sketches in this index
+     */
+    public Set<K> candidates(MinHash sketch) {
+        check(sketch);
+        final Set<K> candidates = new HashSet<>();
+        for (int band = 0; band < this.bands; band++) {
+            final Set<K> bucket = this.buckets.get(band).get(bandHash(sketch, band));
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Returns the keys of the candidates whose estimated Jaccard index with the given sketch is at least
+     * {@code threshold}.
+     *
+     * @param sketch    the query sketch
+     * @param threshold the minimum estimated Jaccard index
+     * @return a new set with the keys of the matching sketches
+     * @throws NullPointerException     if {@code sketch} is {@code null}
+     * @throws IllegalArgumentException if {@code sketch} is not compatible with the sketches in this index
+     * @throws IllegalArgumentException if {@code sketch} is empty
+     * @see Jaccard#Jaccard(MinHash, MinHash)
+     */
+    public Set<K> query(MinHash sketch, double threshold) {
+        final Set<K> candidates = candidates(sketch);
+        candidates.removeIf(k -> new Jaccard(sketch, this.sketches.get(k)).value() < threshold);
+        return candidates;
+    }
+
+    /**
+     * Returns the keys of the candidates whose exact Jaccard index with the given set is at least {@code threshold}.
+     * <p>
+     * The candidates are generated from {@code sketch}, which must be the sketch of {@code set}, and each one is
+     * verified with {@link Jaccard#Jaccard(Set, Set)} against the set returned by {@code sets}.
+     *
+     * @param set       the query set
+     * @param sketch    the sketch of the query set
+     * @param threshold the minimum Jaccard index
+     * @param sets      a function that returns the set of a key
+     * @param <T>       the type of elements in the sets
+     * @return a new set with the keys of the matching sets
+     * @throws NullPointerException     if any argument is {@code null} or if {@code sets} returns {@code null}
+     * @throws IllegalArgumentException if {@code sketch} is not compatible with the sketches in this index
+     * @throws IllegalArgumentException if {@code set} or any of the candidate sets is empty
+     */
+    public <T> Set<K> query(Set<T> set, MinHash sketch, double threshold, Function<? super K, ? extends Set<T>> sets) {
+        final Set<K> candidates = candidates(sketch);
+        candidates.removeIf(k -> new Jaccard(set, sets.apply(k)).value() < threshold);
+        return candidates;
+    }
+
+    private void check(MinHash sketch) {
+        if (sketch.length() < this.bands * this.rows) {
+            throw new IllegalArgumentException("Sketch length must be at least bands * rows");
+        }
+        if (this.reference != null) {
+            this.reference.checkCompatible(sketch);
+        }
+    }
+
+    private long bandHash(MinHash sketch, int band) {
+        final long[] signature = sketch.signatureArray();
+        long hash = band;
+        for (int i = band * this.rows; i < (band + 1) * this.rows; i++) {
+            hash = Hashing.mix(hash * 31 + signature[i]);
+        }
+        return hash;
+    }
+}
@@ -1,13 +1,58 @@
 package gr.james.measures;
 
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 /**
  * Normalized mutual information implementation.
+ * <p>
+ * The mutual information and the entropies are measured in bits. Besides the two sets of the set forms, which are
+ * equivalent to two labelings with two clusters each, the inputs can be two arbitrary labelings of the same elements.
  */
 public class MutualInformation {
-    private final double normalizedMutualInformation;
+    /**
+     * The means of the entropies of the two labelings that the mutual information can be normalized by.
+     */
+    public enum Normalization {
+        /**
+         * The arithmetic mean {@code (H(A) + H(B)) / 2}.
+         */
+        ARITHMETIC,
+        /**
+         * The geometric mean {@code sqrt(H(A) * H(B))}.
+         */
+        GEOMETRIC,
+        /**
+         * The minimum {@code min(H(A), H(B))}.
+         */
+        MIN,
+        /**
+         * The maximum {@code max(H(A), H(B))}.
+         */
+        MAX
+    }
+
+    /**
+     * The number of elements that a single task of the parallel constructor counts before it stops splitting.
+     */
+    static final int LEAF_SIZE = 1 << 16;
+
+    private static final double LN2 = Math.log(2);
+    private static final double[] LOG_FACTORIALS = new double[256];
+
+    static {
+        for (int k = 1; k < LOG_FACTORIALS.length; k++) {
+            LOG_FACTORIALS[k] = LOG_FACTORIALS[k - 1] + Math.log(k);
+        }
+    }
+
     private final double mutualInformation;
+    private final double entropyA;
+    private final double entropyB;
+    private final long n;
+    private final long[] rows;
+    private final long[] cols;
 
     /**
      * Create a new {@link MutualInformation} from the given sets.
@@ -23,59 +68,247 @@ public class MutualInformation {
      * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
      */
     public <T> MutualInformation(Set<T> a, Set<T> b, Set<T> world) {
-        if (a.isEmpty() || b.isEmpty()) {
+        this(new Contingency(a, b, world));
+    }
+
+    /**
+     * Create a new {@link MutualInformation} from the given {@link DenseIntSet dense sets}.
+     * <p>
+     * The universe of the inputs is used as the world set.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different universes
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public MutualInformation(DenseIntSet a, DenseIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link MutualInformation} from the given {@link Contingency}.
+     *
+     * @param c the contingency table of the two sets
+     * @throws NullPointerException     if {@code c} is {@code null}
+     * @throws IllegalArgumentException if either set of {@code c} is empty
+     */
+    public MutualInformation(Contingency c) {
+        if (c.sizeA() == 0 || c.sizeB() == 0) {
             throw new IllegalArgumentException("Inputs cannot be empty");
         }
-        Set<T> big;
-        Set<T> small;
-        if (a.size() > b.size()) {
-            big = a;
-            small = b;
-        } else {
-            big = b;
-            small = a;
+        final long n1X = c.sizeA();
+        final long n0X = c.world() - c.sizeA();
+        final long nX1 = c.sizeB();
+        final long nX0 = c.world() - c.sizeB();
+        this.n = c.world();
+        this.rows = new long[]{n1X, n0X};
+        this.cols = new long[]{nX1, nX0};
+        this.mutualInformation = (cell(c.n11(), n1X, nX1) + cell(c.n10(), n1X, nX0) + cell(c.n01(), n0X, nX1) +
+                cell(c.n00(), n0X, nX0)) / LN2;
+        this.entropyA = entropy(this.rows, this.n);
+        this.entropyB = entropy(this.cols, this.n);
+
+        assert this.mutualInformation >= -1e-8;
+    }
+
+    /**
+     * Create a new {@link MutualInformation} from the given labelings.
+     * <p>
+     * Element {@code i} belongs to the cluster {@code a[i]} in the one labeling and to the cluster {@code b[i]} in the
+     * other labeling. The labels can be arbitrary {@code int} values and the number of clusters is unbounded. The
+     * sparse contingency table of the two labelings is built in {@code O(n)} expected time using primitive hash maps.
+     *
+     * @param a the one labeling
+     * @param b the other labeling
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public MutualInformation(int[] a, int[] b) {
+        this(a.length, table(a, b, 0, a.length));
+    }
+
+    /**
+     * Create a new {@link MutualInformation} from the given labelings, building the contingency table in parallel using
+     * the given {@link ForkJoinPool}.
+     * <p>
+     * Each task builds the contingency table of a range of the labelings and the tables are merged pairwise. The result
+     * is the same as the one produced by {@link #MutualInformation(int[], int[])} up to the rounding errors of the
+     * order of summation.
+     *
+     * @param a    the one labeling
+     * @param b    the other labeling
+     * @param pool the pool to build the contingency table on
+     * @throws NullPointerException     if either {@code a}, {@code b} or {@code pool} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public MutualInformation(int[] a, int[] b, ForkJoinPool pool) {
+        this(check(a, b).length, pool.invoke(new TableTask(a, b, 0, a.length)));
+    }
+
+    private MutualInformation(int n, LongCounter table) {
+        final LongCounter rowCounter = new LongCounter();
+        final LongCounter colCounter = new LongCounter();
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            final long count = table.count(slot);
+            if (count != 0) {
+                rowCounter.add(table.key(slot) >> 32, count);
+                colCounter.add((int) table.key(slot), count);
+            }
         }
-        int intersection = 0;
-        int union = big.size();
-        for (T t : small) {
-            if (big.contains(t)) {
-                intersection++;
-            } else {
-                union++;
+        this.n = n;
+        this.rows = rowCounter.counts();
+        this.cols = colCounter.counts();
+        double mi = 0;
+        for (int slot = 0; slot < table.capacity(); slot++) {
+            final long count = table.count(slot);
+            if (count != 0) {
+                mi += cell(count, rowCounter.get(table.key(slot) >> 32), colCounter.get((int) table.key(slot)));
             }
         }
+        this.mutualInformation = mi / LN2;
+        this.entropyA = entropy(this.rows, this.n);
+        this.entropyB = entropy(this.cols, this.n);
+
+        assert this.mutualInformation >= -1e-8;
+    }
+
+    private static int[] check(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        return a;
+    }
+
+    /**
+     * Builds the sparse contingency table of {@code [from, to)}, keyed by the pair of labels packed in a {@code long}.
+     */
+    private static LongCounter table(int[] a, int[] b, int from, int to) {
+        check(a, b);
+        final LongCounter table = new LongCounter();
+        for (int i = from; i < to; i++) {
+            table.add(((long) a[i] << 32) | (b[i] & 0xFFFFFFFFL), 1);
+        }
+        return table;
+    }
+
+    private static final class TableTask extends RecursiveTask<LongCounter> {
+        private static final long serialVersionUID = 1L;
 
-        final double N11 = intersection;
-        final double N00 = world.size() - union;
-        final double N10 = a.size() - intersection;
-        final double N01 = b.size() - intersection;
-        final double N0X = world.size() - a.size();
-        final double NX0 = world.size() - b.size();
-        final double NX1 = b.size();
-        final double N1X = a.size();
-        final double N = world.size();
+        private final int[] a;
+        private final int[] b;
+        private final int from;
+        private final int to;
 
-        final double pmi1 = (1.0 * N11 / N) * Math.log((1.0 * N * N11) / (1.0 * N1X * NX1)) / Math.log(2);
-        final double pmi2 = (1.0 * N01 / N) * Math.log((1.0 * N * N01) / (1.0 * N0X * NX1)) / Math.log(2);
-        final double pmi3 = (1.0 * N10 / N) * Math.log((1.0 * N * N10) / (1.0 * N1X * NX0)) / Math.log(2);
-        final double pmi4 = (1.0 * N00 / N) * Math.log((1.0 * N * N00) / (1.0 * N0X * NX0)) / Math.log(2);
+        TableTask(int[] a, int[] b, int from, int to) {
+            this.a = a;
+            this.b = b;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected LongCounter compute() {
+            if (this.to - this.from <= LEAF_SIZE) {
+                return table(this.a, this.b, this.from, this.to);
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            final TableTask right = new TableTask(this.a, this.b, middle, this.to);
+            right.fork();
+            final LongCounter left = new TableTask(this.a, this.b, this.from, middle).compute();
+            final LongCounter other = right.join();
+            if (left.size() >= other.size()) {
+                left.merge(other);
+                return left;
+            }
+            other.merge(left);
+            return other;
+        }
+    }
 
-        final double entropy1 = (1.0 * N0X / N) * Math.log(1.0 * N0X / N) / Math.log(2) +
-                (1.0 * N1X / N) * Math.log(1.0 * N1X / N) / Math.log(2);
+    /**
+     * The contribution of a cell with {@code count} elements to the mutual information in nats.
+     */
+    private double cell(long count, long row, long col) {
+        if (count == 0) {
+            return 0;
+        }
+        return (double) count / this.n * Math.log((double) this.n * count / ((double) row * col));
+    }
 
-        final double entropy2 = (1.0 * NX0 / N) * Math.log(1.0 * NX0 / N) / Math.log(2) +
-                (1.0 * NX1 / N) * Math.log(1.0 * NX1 / N) / Math.log(2);
+    /**
+     * The entropy in bits of the given marginal counts.
+     */
+    private static double entropy(long[] marginal, long n) {
+        double entropy = 0;
+        for (long count : marginal) {
+            if (count != 0) {
+                final double p = (double) count / n;
+                entropy -= p * Math.log(p);
+            }
+        }
+        return entropy / LN2;
+    }
 
-        final double mi = (Double.isNaN(pmi1) ? 0.0 : pmi1) +
-                (Double.isNaN(pmi2) ? 0.0 : pmi2) +
-                (Double.isNaN(pmi3) ? 0.0 : pmi3) +
-                (Double.isNaN(pmi4) ? 0.0 : pmi4);
+    /**
+     * Returns the expected mutual information in bits of two random labelings with the marginals of the inputs under
+     * the hypergeometric model of randomness.
+     */
+    private double expectedMutualInformation() {
+        final long n = this.n;
+        double emi = 0;
+        for (long row : this.rows) {
+            for (long col : this.cols) {
+                final long start = Math.max(1, row + col - n);
+                final long end = Math.min(row, col);
+                if (start > end) {
+                    continue;
+                }
+                // The log of the hypergeometric probability of the first count, then updated by the ratio of
+                // consecutive probabilities
+                double logP = logFactorial(row) + logFactorial(col) + logFactorial(n - row) + logFactorial(n - col)
+                        - logFactorial(n) - logFactorial(start) - logFactorial(row - start) - logFactorial(col - start)
+                        - logFactorial(n - row - col + start);
+                for (long k = start; k <= end; k++) {
+                    emi += Math.exp(logP) * k / n * Math.log((double) n * k / ((double) row * col));
+                    logP += Math.log((double) (row - k) * (col - k) / ((double) (k + 1) * (n - row - col + k + 1)));
+                }
+            }
+        }
+        return emi / LN2;
+    }
 
-        this.mutualInformation = mi;
-        this.normalizedMutualInformation = -(2 * mi) / (entropy1 + entropy2);
+    /**
+     * Returns {@code ln(k!)}, exactly summed for small {@code k} and with the Stirling series otherwise.
+     */
+    static double logFactorial(long k) {
+        if (k < LOG_FACTORIALS.length) {
+            return LOG_FACTORIALS[(int) k];
+        }
+        final double x = k;
+        final double x2 = x * x;
+        return x * Math.log(x) - x + 0.5 * Math.log(2 * Math.PI * x)
+                + 1 / (12 * x) - 1 / (360 * x * x2) + 1 / (1260 * x * x2 * x2);
+    }
 
-        assert this.normalizedMutualInformation >= 0 - 1e-4 && this.normalizedMutualInformation <= 1 + 1e-4;
-        assert this.mutualInformation >= 0;
+    private double mean(Normalization normalization) {
+        switch (normalization) {
+            case ARITHMETIC:
+                return (this.entropyA + this.entropyB) / 2;
+            case GEOMETRIC:
+                return Math.sqrt(this.entropyA * this.entropyB);
+            case MIN:
+                return Math.min(this.entropyA, this.entropyB);
+            case MAX:
+                return Math.max(this.entropyA, this.entropyB);
+            default:
+                throw new AssertionError();
+        }
     }
 
     /**
@@ -84,7 +317,52 @@ public class MutualInformation {
      * @return the Normalized mutual information of the inputs that this instance was created from
      */
     public double normalizedMutualInformation() {
-        return this.normalizedMutualInformation;
+        return normalizedMutualInformation(Normalization.ARITHMETIC);
+    }
+
+    /**
+     * Returns the Normalized mutual information of the inputs that this instance was created from, using the given
+     * normalization.
+     *
+     * @param normalization the mean of the entropies to divide the mutual information by
+     * @return the Normalized mutual information of the inputs that this instance was created from or
+     * {@link Double#NaN} if the mean of the entropies is zero
+     * @throws NullPointerException if {@code normalization} is {@code null}
+     */
+    public double normalizedMutualInformation(Normalization normalization) {
+        return this.mutualInformation / mean(normalization);
+    }
+
+    /**
+     * Returns the Adjusted mutual information of the inputs that this instance was created from, using the
+     * {@link Normalization#ARITHMETIC arithmetic} normalization.
+     * <p>
+     * This method is equivalent to {@code adjustedMutualInformation(Normalization.ARITHMETIC)}.
+     *
+     * @return the Adjusted mutual information of the inputs that this instance was created from
+     */
+    public double adjustedMutualInformation() {
+        return adjustedMutualInformation(Normalization.ARITHMETIC);
+    }
+
+    /**
+     * Returns the Adjusted mutual information of the inputs that this instance was created from, using the given
+     * normalization.
+     * <p>
+     * The Adjusted mutual information corrects the mutual information for chance, as {@code (MI - E[MI]) / (M - E[MI])}
+     * where {@code M} is the mean of the entropies and {@code E[MI]} is the expected mutual information of two random
+     * labelings with the same cluster sizes. The expectation is computed exactly on each call, in time proportional to
+     * the sum of {@code min(a_i, b_j)} over all pairs of cluster sizes {@code a_i} and {@code b_j}.
+     *
+     * @param normalization the mean of the entropies
+     * @return the Adjusted mutual information of the inputs that this instance was created from or
+     * {@link Double#NaN} if {@code M} is equal to {@code E[MI]}
+     * @throws NullPointerException if {@code normalization} is {@code null}
+     */
+    public double adjustedMutualInformation(Normalization normalization) {
+        final double mean = mean(normalization);
+        final double emi = expectedMutualInformation();
+        return (this.mutualInformation - emi) / (mean - emi);
     }
 
     /**
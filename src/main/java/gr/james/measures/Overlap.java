@@ -18,25 +18,70 @@ public class Overlap {
      * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
      */
     public <T> Overlap(Set<T> a, Set<T> b) {
-        if (a.isEmpty() || b.isEmpty()) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Overlap} from the given {@link DenseIntSet dense sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different universes
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Overlap(DenseIntSet a, DenseIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Overlap} from the given {@link SortedIntSet sorted sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Overlap(SortedIntSet a, SortedIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Overlap} from the given {@link SortedLongSet sorted sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Overlap(SortedLongSet a, SortedLongSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Overlap} from the given {@link CompressedIntSet compressed sets}.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Overlap(CompressedIntSet a, CompressedIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Overlap} from the given {@link Contingency}.
+     *
+     * @param c the contingency table of the two sets
+     * @throws NullPointerException     if {@code c} is {@code null}
+     * @throws IllegalArgumentException if either set of {@code c} is empty
+     */
+    public Overlap(Contingency c) {
+        if (c.sizeA() == 0 || c.sizeB() == 0) {
             throw new IllegalArgumentException("Inputs cannot be empty");
         }
-        Set<T> big;
-        Set<T> small;
-        if (a.size() > b.size()) {
-            big = a;
-            small = b;
-        } else {
-            big = b;
-            small = a;
-        }
-        int intersection = 0;
-        for (T t : small) {
-            if (big.contains(t)) {
-                intersection++;
-            }
-        }
-        this.value = (double) intersection / (double) small.size();
+        this.value = (double) c.n11() / (double) Math.min(c.sizeA(), c.sizeB());
         assert this.value >= 0 && this.value <= 1;
     }
 
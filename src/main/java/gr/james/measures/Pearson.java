@@ -1,7 +1,10 @@
 package gr.james.measures;
 
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.function.IntToDoubleFunction;
 import java.util.function.ToDoubleFunction;
 
 /**
@@ -26,35 +29,46 @@ public class Pearson {
      * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
      */
     public <T> Pearson(Set<T> a, Set<T> b, Set<T> world) {
-        if (a.isEmpty() || b.isEmpty()) {
+        this(new Contingency(a, b, world));
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given {@link DenseIntSet dense sets}.
+     * <p>
+     * The universe of the inputs is used as the world set.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different universes
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public Pearson(DenseIntSet a, DenseIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given {@link Contingency}.
+     * <p>
+     * This form of Pearson correlation coefficient is identical to the Phi coefficient.
+     *
+     * @param c the contingency table of the two sets
+     * @throws NullPointerException     if {@code c} is {@code null}
+     * @throws IllegalArgumentException if either set of {@code c} is empty
+     */
+    public Pearson(Contingency c) {
+        if (c.sizeA() == 0 || c.sizeB() == 0) {
             throw new IllegalArgumentException("Inputs cannot be empty");
         }
-        Set<T> big;
-        Set<T> small;
-        if (a.size() > b.size()) {
-            big = a;
-            small = b;
-        } else {
-            big = b;
-            small = a;
-        }
-        int intersection = 0;
-        int union = big.size();
-        for (T t : small) {
-            if (big.contains(t)) {
-                intersection++;
-            } else {
-                union++;
-            }
-        }
-        final double n00 = world.size() - union;
-        final double n10 = a.size() - intersection;
-        final double n01 = b.size() - intersection;
-        final double n0_ = world.size() - a.size();
-        final double n_0 = world.size() - a.size();
-        this.value = ((double) intersection * n00 - n10 * n01) /
-                Math.sqrt((double) a.size() * (double) b.size() * n0_ * n_0);
-        assert Double.isNaN(this.value) || (this.value >= -1 && this.value <= 1);
+        final double n11 = c.n11();
+        final double n00 = c.n00();
+        final double n10 = c.n10();
+        final double n01 = c.n01();
+        final double n0_ = c.world() - c.sizeA();
+        final double n_0 = c.world() - c.sizeB();
+        this.value = (n11 * n00 - n10 * n01) /
+                Math.sqrt((double) c.sizeA() * (double) c.sizeB() * n0_ * n_0);
+        assert Double.isNaN(this.value) || (this.value >= -1 - 1e-8 && this.value <= 1 + 1e-8);
     }
 
     /**
@@ -100,8 +114,8 @@ public class Pearson {
             final Double aNext = aIterator.next() - averageA;
             final Double bNext = bIterator.next() - averageB;
             cov += aNext * bNext;
-            varA += Math.pow(aNext, 2);
-            varB += Math.pow(bNext, 2);
+            varA += aNext * aNext;
+            varB += bNext * bNext;
         }
         if (aIterator.hasNext() || bIterator.hasNext()) {
             throw new IllegalArgumentException("Inputs must have the same size");
@@ -165,6 +179,220 @@ public class Pearson {
         assert this.value >= -1 && this.value <= 1;
     }
 
+    /**
+     * Create a new {@link Pearson} from the given {@code double} arrays.
+     * <p>
+     * This method assumes that elements are matched between the input arrays by index. The sums are accumulated in
+     * several independent partial sums, which allows the loops to be vectorized, so the result is the same as the one
+     * produced by {@link #Pearson(Iterable, Iterable)} on the boxed equivalent of the inputs up to the rounding errors
+     * of the different order of summation.
+     *
+     * @param a the one array
+     * @param b the other array
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Pearson(double[] a, double[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = pearson(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given slices of {@code double} arrays.
+     * <p>
+     * The elements {@code a[aOffset + i]} and {@code b[bOffset + i]} are matched for every {@code i} in
+     * {@code [0, length)}. The result is the same as the one produced by {@link #Pearson(double[], double[])} on copies
+     * of the slices.
+     *
+     * @param a       the one array
+     * @param aOffset the index of the first element of {@code a} to consider
+     * @param b       the other array
+     * @param bOffset the index of the first element of {@code b} to consider
+     * @param length  the number of elements to consider from each array
+     * @throws NullPointerException      if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException  if {@code length} is not positive
+     * @throws IndexOutOfBoundsException if either slice is out of the bounds of its array
+     */
+    public Pearson(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (aOffset < 0 || aOffset > a.length - length || bOffset < 0 || bOffset > b.length - length) {
+            throw new IndexOutOfBoundsException("Slice is out of bounds");
+        }
+        this.value = pearson(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given {@link DoubleBuffer buffers}.
+     * <p>
+     * The elements between the position and the limit of each buffer are considered and matched by index. This
+     * constructor uses absolute reads and will not modify the position of the buffers. The result is the same as the
+     * one produced by {@link #Pearson(double[], double[])} on the remaining elements if both buffers are backed by
+     * accessible arrays and the same as the one produced by {@link #Pearson(Iterable, Iterable)} otherwise.
+     *
+     * @param a the one buffer
+     * @param b the other buffer
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} has no remaining elements
+     * @throws IllegalArgumentException if {@code a} and {@code b} have a different number of remaining elements
+     */
+    public Pearson(DoubleBuffer a, DoubleBuffer b) {
+        if (!a.hasRemaining() || !b.hasRemaining()) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.remaining() != b.remaining()) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = pearson(a, b);
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given {@code float} arrays.
+     * <p>
+     * The elements are widened to {@code double} and all sums are accumulated in {@code double}, so the result has
+     * the accuracy of {@link #Pearson(double[], double[])} on the widened inputs, while the inputs only occupy half the
+     * memory.
+     *
+     * @param a the one vector
+     * @param b the other vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Pearson(float[] a, float[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = pearson(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given slices of {@code float} arrays.
+     * <p>
+     * The elements {@code a[aOffset + i]} and {@code b[bOffset + i]} are matched for every {@code i} in
+     * {@code [0, length)}. The result is the same as the one produced by {@link #Pearson(float[], float[])} on copies
+     * of the slices.
+     *
+     * @param a       the one vector
+     * @param aOffset the index of the first element of {@code a} to consider
+     * @param b       the other vector
+     * @param bOffset the index of the first element of {@code b} to consider
+     * @param length  the number of elements to consider from each vector
+     * @throws NullPointerException      if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException  if {@code length} is not positive
+     * @throws IndexOutOfBoundsException if either slice is out of the bounds of its array
+     */
+    public Pearson(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        if (length <= 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (aOffset < 0 || aOffset > a.length - length || bOffset < 0 || bOffset > b.length - length) {
+            throw new IndexOutOfBoundsException("Slice is out of bounds");
+        }
+        this.value = pearson(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given {@link FloatBuffer buffers}.
+     * <p>
+     * The elements between the position and the limit of each buffer are considered and matched by index. This
+     * constructor uses absolute reads and will not modify the position of the buffers. The elements are widened to
+     * {@code double} and all sums are accumulated in {@code double}. The result is the same as the one produced by
+     * {@link #Pearson(float[], float[])} on the remaining elements if both buffers are backed by accessible arrays and
+     * the same as the one produced by {@link #Pearson(DoubleBuffer, DoubleBuffer)} on the widened elements otherwise.
+     *
+     * @param a the one buffer
+     * @param b the other buffer
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} has no remaining elements
+     * @throws IllegalArgumentException if {@code a} and {@code b} have a different number of remaining elements
+     */
+    public Pearson(FloatBuffer a, FloatBuffer b) {
+        if (!a.hasRemaining() || !b.hasRemaining()) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.remaining() != b.remaining()) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        this.value = pearson(a, b);
+    }
+
+    /**
+     * Create a new {@link Pearson} from the given {@link SparseVector sparse vectors}.
+     * <p>
+     * Only the stored components of the inputs are visited, by merging their indices. The contribution of the
+     * components that are zero in both inputs is accounted for analytically from the dimension, so the result is the
+     * same as the one of {@link #Pearson(double[], double[])} on the dense equivalent of the inputs, up to rounding.
+     *
+     * @param a the one vector
+     * @param b the other vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different dimension
+     */
+    public Pearson(SparseVector a, SparseVector b) {
+        if (a.dimension() != b.dimension()) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        final int n = a.dimension();
+        final int[] aIndices = a.indices();
+        final double[] aValues = a.values();
+        final int[] bIndices = b.indices();
+        final double[] bValues = b.values();
+
+        double averageA = 0;
+        for (double x : aValues) {
+            averageA += x;
+        }
+        double averageB = 0;
+        for (double x : bValues) {
+            averageB += x;
+        }
+        averageA /= n;
+        averageB /= n;
+
+        double cov = 0;
+        double varA = 0;
+        double varB = 0;
+        int union = 0;
+        int i = 0;
+        int j = 0;
+        while (i < aIndices.length || j < bIndices.length) {
+            final double aNext;
+            final double bNext;
+            if (j == bIndices.length || (i < aIndices.length && aIndices[i] < bIndices[j])) {
+                aNext = aValues[i++] - averageA;
+                bNext = -averageB;
+            } else if (i == aIndices.length || aIndices[i] > bIndices[j]) {
+                aNext = -averageA;
+                bNext = bValues[j++] - averageB;
+            } else {
+                aNext = aValues[i++] - averageA;
+                bNext = bValues[j++] - averageB;
+            }
+            cov += aNext * bNext;
+            varA += aNext * aNext;
+            varB += bNext * bNext;
+            union++;
+        }
+        final int zeros = n - union;
+        cov += zeros * averageA * averageB;
+        varA += zeros * averageA * averageA;
+        varB += zeros * averageB * averageB;
+
+        this.value = cov / (Math.sqrt(varA) * Math.sqrt(varB));
+        assert Double.isNaN(this.value) || (this.value >= -1 - 1e-8 && this.value <= 1 + 1e-8);
+    }
+
     /**
      * Create a new {@link Pearson} from the given arguments.
      *
@@ -194,9 +422,11 @@ public class Pearson {
         double varA = 0;
         double varB = 0;
         for (T t : population) {
-            cov += (mapping1.applyAsDouble(t) - averageA) * (mapping2.applyAsDouble(t) - averageB);
-            varA += Math.pow(mapping1.applyAsDouble(t) - averageA, 2);
-            varB += Math.pow(mapping2.applyAsDouble(t) - averageB, 2);
+            final double aNext = mapping1.applyAsDouble(t) - averageA;
+            final double bNext = mapping2.applyAsDouble(t) - averageB;
+            cov += aNext * bNext;
+            varA += aNext * aNext;
+            varB += bNext * bNext;
         }
 
         cov /= population.size();
@@ -210,6 +440,74 @@ public class Pearson {
         assert this.value >= -1 && this.value <= 1;
     }
 
+    private static double pearson(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        final double value = Kernels.pearson(a, aOffset, b, bOffset, length);
+        assert Double.isNaN(value) || (value >= -1 - 1e-8 && value <= 1 + 1e-8);
+        return value;
+    }
+
+    private static double pearson(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        final double value = Kernels.pearson(a, aOffset, b, bOffset, length);
+        assert Double.isNaN(value) || (value >= -1 - 1e-8 && value <= 1 + 1e-8);
+        return value;
+    }
+
+    private static double pearson(DoubleBuffer a, DoubleBuffer b) {
+        if (a.hasArray() && b.hasArray()) {
+            return pearson(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    a.remaining());
+        }
+        final int aPosition = a.position();
+        final int bPosition = b.position();
+        return pearson(i -> a.get(aPosition + i), i -> b.get(bPosition + i), a.remaining());
+    }
+
+    private static double pearson(FloatBuffer a, FloatBuffer b) {
+        if (a.hasArray() && b.hasArray()) {
+            return pearson(a.array(), a.arrayOffset() + a.position(), b.array(), b.arrayOffset() + b.position(),
+                    a.remaining());
+        }
+        final int aPosition = a.position();
+        final int bPosition = b.position();
+        return pearson(i -> a.get(aPosition + i), i -> b.get(bPosition + i), a.remaining());
+    }
+
+    /**
+     * Two-pass fallback for the buffers that are not backed by accessible arrays, where element {@code i} of each
+     * input is read by the given function.
+     */
+    private static double pearson(IntToDoubleFunction a, IntToDoubleFunction b, int length) {
+        double averageA = 0;
+        double averageB = 0;
+        for (int i = 0; i < length; i++) {
+            averageA += a.applyAsDouble(i);
+        }
+        for (int i = 0; i < length; i++) {
+            averageB += b.applyAsDouble(i);
+        }
+        averageA /= length;
+        averageB /= length;
+
+        double cov = 0;
+        double varA = 0;
+        double varB = 0;
+        for (int i = 0; i < length; i++) {
+            final double aNext = a.applyAsDouble(i) - averageA;
+            final double bNext = b.applyAsDouble(i) - averageB;
+            cov += aNext * bNext;
+            varA += aNext * aNext;
+            varB += bNext * bNext;
+        }
+
+        cov /= length;
+        varA /= length;
+        varB /= length;
+
+        final double value = cov / (Math.sqrt(varA) * Math.sqrt(varB));
+        assert Double.isNaN(value) || (value >= -1 - 1e-8 && value <= 1 + 1e-8);
+        return value;
+    }
+
     /**
      * Returns the Pearson correlation coefficient of the inputs that this instance was created from.
      *
@@ -0,0 +1,195 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+
+/**
+ * Package-private mergeable quantile sketch of a stream of {@code double} values in the style of KLL.
+ * <p>
+ * Values are kept in a hierarchy of compactors, where each value at level {@code h} stands for {@code 2^h} values of
+ * the stream. When the sketch exceeds its capacity, the lowest full level is sorted and every other value, starting
+ * at a random offset, is promoted to the next level while the rest are dropped. The capacities decrease geometrically
+ * by {@code 2/3} from the top level, which has a capacity of {@code k}, so the sketch keeps {@code O(k)} values and
+ * {@code O(log(n / k))} levels. The rank of any value is then estimated within about {@code n / k} of its true rank.
+ * Level {@code 0} is unsorted while all higher levels are kept sorted. Values are compared using
+ * {@link Double#compare(double, double)}.
+ */
+final class QuantileSketch {
+    private final int k;
+    private double[][] levels;
+    private int[] sizes;
+    private int[] capacities;
+    private int size;
+    private int capacity;
+    private long count;
+    private long seed;
+
+    QuantileSketch(int k) {
+        this.k = k;
+        this.levels = new double[][]{new double[k + 1]};
+        this.sizes = new int[1];
+        this.capacities = new int[1];
+        this.size = 0;
+        this.count = 0;
+        this.seed = 0;
+        resize();
+    }
+
+    int k() {
+        return this.k;
+    }
+
+    /**
+     * Returns the number of values added to this sketch.
+     */
+    long count() {
+        return this.count;
+    }
+
+    void add(double x) {
+        append(0, x);
+        this.count++;
+        this.size++;
+        if (this.size > this.capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Adds the values of {@code other}, which must have the same {@code k}, to this sketch.
+     */
+    void merge(QuantileSketch other) {
+        while (this.levels.length < other.levels.length) {
+            grow();
+        }
+        for (int h = 0; h < other.levels.length; h++) {
+            if (h == 0) {
+                for (int i = 0; i < other.sizes[0]; i++) {
+                    append(0, other.levels[0][i]);
+                }
+            } else {
+                insertSorted(h, other.levels[h], 0, other.sizes[h]);
+            }
+            this.size += other.sizes[h];
+        }
+        this.count += other.count;
+        while (this.size > this.capacity) {
+            compress();
+        }
+    }
+
+    /**
+     * Returns the estimated mid-rank of {@code x}, which is the number of values less than {@code x} plus half the
+     * number of values equal to {@code x}.
+     */
+    double rank(double x) {
+        long less = 0;
+        long equal = 0;
+        for (int i = 0; i < this.sizes[0]; i++) {
+            final int order = Double.compare(this.levels[0][i], x);
+            if (order < 0) {
+                less++;
+            } else if (order == 0) {
+                equal++;
+            }
+        }
+        for (int h = 1; h < this.levels.length; h++) {
+            final int low = bound(this.levels[h], this.sizes[h], x, false);
+            final int high = bound(this.levels[h], this.sizes[h], x, true);
+            less += (long) low << h;
+            equal += (long) (high - low) << h;
+        }
+        return less + equal / 2.0;
+    }
+
+    private void compress() {
+        int h = 0;
+        while (this.sizes[h] < this.capacities[h]) {
+            h++;
+        }
+        if (h == this.levels.length - 1) {
+            grow();
+        }
+        final double[] level = this.levels[h];
+        if (h == 0) {
+            Arrays.sort(level, 0, this.sizes[0]);
+        }
+        // With an odd size the smallest value stays, so the promoted values always come in pairs
+        final int from = this.sizes[h] & 1;
+        this.seed++;
+        final int offset = (int) (Hashing.mix(this.seed) >>> 63);
+        final double[] promoted = new double[(this.sizes[h] - from) / 2];
+        for (int i = 0; i < promoted.length; i++) {
+            promoted[i] = level[from + 2 * i + offset];
+        }
+        insertSorted(h + 1, promoted, 0, promoted.length);
+        this.size -= this.sizes[h] - from - promoted.length;
+        this.sizes[h] = from;
+    }
+
+    private void append(int h, double x) {
+        if (this.sizes[h] == this.levels[h].length) {
+            this.levels[h] = Arrays.copyOf(this.levels[h], this.levels[h].length * 2);
+        }
+        this.levels[h][this.sizes[h]++] = x;
+    }
+
+    /**
+     * Merges the sorted {@code x[from, to)} into the sorted level {@code h}.
+     */
+    private void insertSorted(int h, double[] x, int from, int to) {
+        final double[] level = this.levels[h];
+        final int length = this.sizes[h] + to - from;
+        final double[] merged = new double[Math.max(length, level.length)];
+        int i = 0;
+        int j = from;
+        int m = 0;
+        while (i < this.sizes[h] && j < to) {
+            merged[m++] = Double.compare(x[j], level[i]) < 0 ? x[j++] : level[i++];
+        }
+        while (i < this.sizes[h]) {
+            merged[m++] = level[i++];
+        }
+        while (j < to) {
+            merged[m++] = x[j++];
+        }
+        this.levels[h] = merged;
+        this.sizes[h] = length;
+    }
+
+    private void grow() {
+        final int height = this.levels.length + 1;
+        this.levels = Arrays.copyOf(this.levels, height);
+        this.levels[height - 1] = new double[this.k + 1];
+        this.sizes = Arrays.copyOf(this.sizes, height);
+        this.capacities = new int[height];
+        resize();
+    }
+
+    private void resize() {
+        final int height = this.levels.length;
+        this.capacity = 0;
+        for (int h = 0; h < height; h++) {
+            this.capacities[h] = Math.max(2, (int) Math.ceil(this.k * Math.pow(2.0 / 3, height - 1 - h)));
+            this.capacity += this.capacities[h];
+        }
+    }
+
+    /**
+     * Returns the number of values in the sorted {@code x[0, size)} that are less than {@code key}, or less than or
+     * equal to it if {@code inclusive} is {@code true}.
+     */
+    private static int bound(double[] x, int size, double key, boolean inclusive) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            final int order = Double.compare(x[middle], key);
+            if (order < 0 || (inclusive && order == 0)) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,190 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Package-private ranking utilities shared by the rank correlation measures.
+ */
+final class Ranks {
+    private Ranks() {
+    }
+
+    /**
+     * Returns the dense ranks of the given array.
+     * <p>
+     * Equal elements receive the same rank and the ranks are consecutive integers starting from {@code 0}. Elements
+     * are compared using {@link Double#compare(double, double)}.
+     *
+     * @param x the input array
+     * @return a new array with the dense rank of each element of {@code x}
+     */
+    static int[] dense(double[] x) {
+        final double[] sorted = x.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || Double.compare(sorted[i], sorted[unique - 1]) != 0) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        final int[] ranks = new int[x.length];
+        for (int i = 0; i < x.length; i++) {
+            ranks[i] = Arrays.binarySearch(sorted, 0, unique, x[i]);
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the dense ranks of the given array, computed in parallel using the given {@link ForkJoinPool}.
+     * <p>
+     * The result is the same as the one of {@link #dense(double[])}. The elements are mapped to {@code long} keys with
+     * the same order as {@link Double#compare(double, double)}, which are sorted with {@link Kendall#sort(long[],
+     * long[], boolean, ForkJoinPool)} and then searched in parallel.
+     *
+     * @param x    the input array
+     * @param pool the pool to execute the tasks in
+     * @return a new array with the dense rank of each element of {@code x}
+     */
+    static int[] dense(double[] x, ForkJoinPool pool) {
+        final long[] sorted = new long[x.length];
+        for (int i = 0; i < x.length; i++) {
+            sorted[i] = sortable(x[i]);
+        }
+        Kendall.sort(sorted, new long[x.length], false, pool);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        final int[] ranks = new int[x.length];
+        pool.invoke(new DenseTask(x, sorted, unique, ranks, 0, x.length));
+        return ranks;
+    }
+
+    /**
+     * Returns a {@code long} whose signed order is the order of {@link Double#compare(double, double)}, which places
+     * {@code -0.0} before {@code 0.0} and all {@code NaN} values last.
+     */
+    private static long sortable(double x) {
+        final long bits = Double.doubleToLongBits(x);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static final class DenseTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] x;
+        private final long[] sorted;
+        private final int unique;
+        private final int[] ranks;
+        private final int from;
+        private final int to;
+
+        DenseTask(double[] x, long[] sorted, int unique, int[] ranks, int from, int to) {
+            this.x = x;
+            this.sorted = sorted;
+            this.unique = unique;
+            this.ranks = ranks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= Kendall.LEAF_SIZE) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.ranks[i] = Arrays.binarySearch(this.sorted, 0, this.unique, sortable(this.x[i]));
+                }
+                return;
+            }
+            final int middle = (this.from + this.to) >>> 1;
+            invokeAll(
+                    new DenseTask(this.x, this.sorted, this.unique, this.ranks, this.from, middle),
+                    new DenseTask(this.x, this.sorted, this.unique, this.ranks, middle, this.to)
+            );
+        }
+    }
+
+    /**
+     * Returns the dense ranks of the given list.
+     * <p>
+     * Equal elements receive the same rank and the ranks are consecutive integers starting from {@code 0}. Elements
+     * are compared using {@link Comparable#compareTo(Object)}.
+     *
+     * @param x   the input list
+     * @param <T> the type of elements in the input
+     * @return a new array with the dense rank of each element of {@code x}
+     * @throws NullPointerException if {@code x} contains {@code null} elements
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Comparable<T>> int[] dense(List<T> x) {
+        final Object[] sorted = x.toArray();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || ((T) sorted[i]).compareTo((T) sorted[unique - 1]) != 0) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        final int[] ranks = new int[sorted.length];
+        final Iterator<T> it = x.iterator();
+        for (int i = 0; i < ranks.length; i++) {
+            ranks[i] = Arrays.binarySearch(sorted, 0, unique, it.next());
+        }
+        return ranks;
+    }
+
+    /**
+     * Returns the fractional ranks of the given array.
+     * <p>
+     * Ranks start from {@code 1} and tied elements receive the average of the ranks that they would have received had
+     * they not been tied. Elements are compared using {@link Double#compare(double, double)}.
+     *
+     * @param x the input array
+     * @return a new array with the fractional rank of each element of {@code x}
+     */
+    static double[] average(double[] x) {
+        final double[] sorted = x.clone();
+        Arrays.sort(sorted);
+        final double[] ranks = new double[x.length];
+        for (int i = 0; i < x.length; i++) {
+            final int first = lowerBound(sorted, x[i]);
+            final int last = upperBound(sorted, x[i]) - 1;
+            ranks[i] = (first + last) / 2.0 + 1;
+        }
+        return ranks;
+    }
+
+    private static int lowerBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (Double.compare(sorted[middle], key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(double[] sorted, double key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (Double.compare(sorted[middle], key) <= 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,359 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * All-pairs set similarity join.
+ * <p>
+ * Given a list of sets, a measure and a threshold, this class reports every pair of sets whose similarity is at least
+ * the threshold, without comparing all pairs. The elements are relabeled by increasing frequency, each set is sorted
+ * by this order and only a prefix of each set is indexed in an inverted index, such that two sets that reach the
+ * threshold are guaranteed to share an element in their prefixes (prefix filtering). Candidates are further pruned by
+ * their sizes (size filtering) and then verified exactly with a merge of the two sorted sets. The sets are probed in
+ * parallel on a {@link ForkJoinPool} and the qualifying pairs are streamed to a {@link PairConsumer} instead of being
+ * materialized in a matrix.
+ * <p>
+ * The reported values are identical to the ones of {@link Jaccard}, {@link Sorensen} and {@link Overlap}. Empty sets
+ * never participate in any pair.
+ */
+public class SimilarityJoin {
+    /**
+     * The measures supported by {@link SimilarityJoin}.
+     */
+    public enum Measure {
+        /**
+         * The {@link Jaccard} index.
+         */
+        JACCARD,
+        /**
+         * The {@link Sorensen} coefficient.
+         */
+        SORENSEN,
+        /**
+         * The {@link Overlap} coefficient.
+         */
+        OVERLAP
+    }
+
+    /**
+     * Receives the pairs produced by a {@link SimilarityJoin}.
+     * <p>
+     * Implementations must be thread-safe because the method may be invoked concurrently from multiple threads.
+     */
+    @FunctionalInterface
+    public interface PairConsumer {
+        /**
+         * Accepts a qualifying pair.
+         *
+         * @param a     the index of one set in the input list
+         * @param b     the index of the other set in the input list
+         * @param value the similarity of the two sets
+         */
+        void accept(int a, int b, double value);
+    }
+
+    /**
+     * The number of records that a single task probes before it stops splitting.
+     */
+    static final int LEAF_SIZE = 256;
+
+    private final Measure measure;
+    private final double threshold;
+    /**
+     * The relabeled and sorted records, ordered by size.
+     */
+    private final int[][] records;
+    /**
+     * The index of each record in the input list.
+     */
+    private final int[] ids;
+    /**
+     * The inverted index from each element to the records whose index prefix contains it, in record order.
+     */
+    private final int[][] postings;
+
+    /**
+     * Create a new {@link SimilarityJoin} for the given sets.
+     * <p>
+     * The index is built in this constructor and can be used for any number of {@link #join(PairConsumer)} calls.
+     *
+     * @param sets      the input sets
+     * @param measure   the similarity measure
+     * @param threshold the minimum similarity of the reported pairs
+     * @param <T>       the type of elements in the sets
+     * @throws NullPointerException     if any argument is {@code null} or if {@code sets} contains {@code null}
+     * @throws IllegalArgumentException if {@code threshold} is not in {@code (0, 1]}
+     */
+    public <T> SimilarityJoin(List<? extends Set<T>> sets, Measure measure, double threshold) {
+        if (measure == null) {
+            throw new NullPointerException();
+        }
+        if (!(threshold > 0 && threshold <= 1)) {
+            throw new IllegalArgumentException("Threshold must be in (0, 1]");
+        }
+        this.measure = measure;
+        this.threshold = threshold;
+
+        final Map<T, int[]> frequencies = new HashMap<>();
+        int nonEmpty = 0;
+        for (Set<T> set : sets) {
+            if (!set.isEmpty()) {
+                nonEmpty++;
+            }
+            for (T t : set) {
+                frequencies.computeIfAbsent(t, k -> new int[2])[0]++;
+            }
+        }
+        final long[] order = new long[frequencies.size()];
+        final Object[] elements = new Object[frequencies.size()];
+        int index = 0;
+        for (Map.Entry<T, int[]> e : frequencies.entrySet()) {
+            order[index] = ((long) e.getValue()[0] << 32) | index;
+            elements[index] = e.getKey();
+            index++;
+        }
+        Arrays.sort(order);
+        for (int i = 0; i < order.length; i++) {
+            frequencies.get(elements[(int) order[i]])[1] = i;
+        }
+
+        final long[] bySize = new long[nonEmpty];
+        int record = 0;
+        for (int i = 0; i < sets.size(); i++) {
+            if (!sets.get(i).isEmpty()) {
+                bySize[record++] = ((long) sets.get(i).size() << 32) | i;
+            }
+        }
+        Arrays.sort(bySize);
+        this.records = new int[nonEmpty][];
+        this.ids = new int[nonEmpty];
+        for (int r = 0; r < nonEmpty; r++) {
+            this.ids[r] = (int) bySize[r];
+            final int[] tokens = new int[(int) (bySize[r] >>> 32)];
+            int k = 0;
+            for (T t : sets.get(this.ids[r])) {
+                tokens[k++] = frequencies.get(t)[1];
+            }
+            Arrays.sort(tokens);
+            this.records[r] = tokens;
+        }
+
+        final int[] counts = new int[frequencies.size()];
+        for (int[] tokens : this.records) {
+            final int prefix = indexPrefix(tokens.length);
+            for (int i = 0; i < prefix; i++) {
+                counts[tokens[i]]++;
+            }
+        }
+        this.postings = new int[frequencies.size()][];
+        for (int i = 0; i < counts.length; i++) {
+            this.postings[i] = new int[counts[i]];
+            counts[i] = 0;
+        }
+        for (int r = 0; r < this.records.length; r++) {
+            final int[] tokens = this.records[r];
+            final int prefix = indexPrefix(tokens.length);
+            for (int i = 0; i < prefix; i++) {
+                this.postings[tokens[i]][counts[tokens[i]]++] = r;
+            }
+        }
+    }
+
+    /**
+     * Reports every qualifying pair to the given consumer using the {@link ForkJoinPool#commonPool() common pool}.
+     *
+     * @param consumer the consumer of the pairs
+     * @throws NullPointerException if {@code consumer} is {@code null}
+     * @throws RuntimeException     as propagated from {@link PairConsumer#accept(int, int, double)}
+     */
+    public void join(PairConsumer consumer) {
+        join(ForkJoinPool.commonPool(), consumer);
+    }
+
+    /**
+     * Reports every qualifying pair to the given consumer using the given {@link ForkJoinPool}.
+     * <p>
+     * Each unordered pair is reported exactly once and this method returns after all pairs have been reported.
+     *
+     * @param pool     the pool to execute the join on
+     * @param consumer the consumer of the pairs
+     * @throws NullPointerException if either {@code pool} or {@code consumer} is {@code null}
+     * @throws RuntimeException     as propagated from {@link PairConsumer#accept(int, int, double)}
+     */
+    public void join(ForkJoinPool pool, PairConsumer consumer) {
+        if (consumer == null) {
+            throw new NullPointerException();
+        }
+        // Stamps are indexed by record and valued by the probing record, so leaves can reuse each other's arrays and
+        // the join allocates one per concurrently running leaf, which are released with the queue when it returns
+        pool.invoke(new ProbeTask(consumer, new ConcurrentLinkedQueue<>(), 0, this.records.length));
+    }
+
+    private final class ProbeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final PairConsumer consumer;
+        private final Queue<int[]> stamps;
+        private final int from;
+        private final int to;
+
+        ProbeTask(PairConsumer consumer, Queue<int[]> stamps, int from, int to) {
+            this.consumer = consumer;
+            this.stamps = stamps;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from > LEAF_SIZE) {
+                final int middle = (this.from + this.to) >>> 1;
+                invokeAll(new ProbeTask(this.consumer, this.stamps, this.from, middle),
+                        new ProbeTask(this.consumer, this.stamps, middle, this.to));
+                return;
+            }
+            int[] stamps = this.stamps.poll();
+            if (stamps == null) {
+                stamps = new int[SimilarityJoin.this.records.length];
+                Arrays.fill(stamps, -1);
+            }
+            try {
+                for (int x = this.from; x < this.to; x++) {
+                    probe(x, stamps, this.consumer);
+                }
+            } finally {
+                this.stamps.offer(stamps);
+            }
+        }
+    }
+
+    /**
+     * Reports the pairs of record {@code x} with every earlier record.
+     */
+    private void probe(int x, int[] stamps, PairConsumer consumer) {
+        final int[] tokens = this.records[x];
+        final int prefix = probePrefix(tokens.length);
+        final double minSize = minPartnerSize(tokens.length);
+        for (int i = 0; i < prefix; i++) {
+            final int[] list = this.postings[tokens[i]];
+            for (int k = lowerBound(list, minSize); k < list.length; k++) {
+                final int y = list[k];
+                if (y >= x) {
+                    break;
+                }
+                if (stamps[y] == x) {
+                    continue;
+                }
+                stamps[y] = x;
+                final int[] other = this.records[y];
+                final int n11 = SortedIntSet.merge(other, tokens);
+                if (n11 >= minOverlap(tokens.length, other.length)) {
+                    final double value = value(n11, other.length, tokens.length);
+                    if (value >= this.threshold) {
+                        consumer.accept(this.ids[y], this.ids[x], value);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the first position in the posting list whose record has size at least {@code minSize}.
+     */
+    private int lowerBound(int[] list, double minSize) {
+        int low = 0;
+        int high = list.length;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (this.records[list[middle]].length < minSize) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * The value of the measure for sets of sizes {@code small <= big} with {@code n11} common elements.
+     */
+    private double value(int n11, int small, int big) {
+        switch (this.measure) {
+            case JACCARD:
+                return (double) n11 / (double) (small + big - n11);
+            case SORENSEN:
+                return (double) n11 * 2.0 / (double) (small + big);
+            default:
+                return (double) n11 / (double) small;
+        }
+    }
+
+    /**
+     * The minimum size of an earlier (smaller) record that can pair with a record of the given size.
+     */
+    private double minPartnerSize(int size) {
+        switch (this.measure) {
+            case JACCARD:
+                return this.threshold * size - 1e-9;
+            case SORENSEN:
+                return this.threshold / (2 - this.threshold) * size - 1e-9;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * The minimum number of common elements for a pair of records with sizes {@code small <= big}.
+     */
+    private int minOverlap(int big, int small) {
+        switch (this.measure) {
+            case JACCARD:
+                return ceil(this.threshold / (1 + this.threshold) * (big + small));
+            case SORENSEN:
+                return ceil(this.threshold * (big + small) / 2);
+            default:
+                return ceil(this.threshold * small);
+        }
+    }
+
+    /**
+     * The prefix length of a record of the given size when probing against smaller records.
+     */
+    private int probePrefix(int size) {
+        switch (this.measure) {
+            case JACCARD:
+                return size - ceil(this.threshold * size) + 1;
+            case SORENSEN:
+                return size - ceil(this.threshold / (2 - this.threshold) * size) + 1;
+            default:
+                return size;
+        }
+    }
+
+    /**
+     * The prefix length of a record of the given size when indexed against larger records.
+     */
+    private int indexPrefix(int size) {
+        switch (this.measure) {
+            case JACCARD:
+                return size - ceil(2 * this.threshold / (1 + this.threshold) * size) + 1;
+            default:
+                return size - ceil(this.threshold * size) + 1;
+        }
+    }
+
+    /**
+     * Ceiling that tolerates a small floating point error below an integer.
+     */
+    private static int ceil(double x) {
+        return Math.max((int) Math.ceil(x - 1e-9), 1);
+    }
+}
@@ -22,28 +22,36 @@ public class SimpleMatching {
      * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
      */
     public <T> SimpleMatching(Set<T> a, Set<T> b, Set<T> world) {
-        if (a.isEmpty() || b.isEmpty()) {
+        this(new Contingency(a, b, world));
+    }
+
+    /**
+     * Create a new {@link SimpleMatching} from the given {@link DenseIntSet dense sets}.
+     * <p>
+     * The universe of the inputs is used as the world set.
+     *
+     * @param a one set
+     * @param b the other set
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if {@code a} and {@code b} have different universes
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     */
+    public SimpleMatching(DenseIntSet a, DenseIntSet b) {
+        this(new Contingency(a, b));
+    }
+
+    /**
+     * Create a new {@link SimpleMatching} from the given {@link Contingency}.
+     *
+     * @param c the contingency table of the two sets
+     * @throws NullPointerException     if {@code c} is {@code null}
+     * @throws IllegalArgumentException if either set of {@code c} is empty
+     */
+    public SimpleMatching(Contingency c) {
+        if (c.sizeA() == 0 || c.sizeB() == 0) {
             throw new IllegalArgumentException("Inputs cannot be empty");
         }
-        Set<T> big;
-        Set<T> small;
-        if (a.size() > b.size()) {
-            big = a;
-            small = b;
-        } else {
-            big = b;
-            small = a;
-        }
-        int intersection = 0;
-        int union = big.size();
-        for (T t : small) {
-            if (big.contains(t)) {
-                intersection++;
-            } else {
-                union++;
-            }
-        }
-        this.value = (double) (world.size() - union + intersection) / (double) world.size();
+        this.value = (double) (c.n11() + c.n00()) / (double) c.world();
         assert this.value >= 0 && this.value <= 1;
     }
 
@@ -0,0 +1,244 @@
+package gr.james.measures;
+
+/**
+ * Sliding window accumulator of the Pearson correlation coefficient and the Cosine similarity of two series.
+ * <p>
+ * A window is either count-based, holding the most recent {@code size} samples, or time-based, holding the samples
+ * whose timestamps are within the most recent {@code duration} time units. Adding and evicting a sample takes
+ * amortized {@code O(1)} time and the current values can be read at any time without rescanning the window.
+ * <p>
+ * The window maintains the running means, the sums of squared deviations and the co-moment of the samples with
+ * Welford's updates, which remain numerically stable in the presence of large offsets; the Cosine similarity is derived
+ * from the same moments. Because removals can slowly accumulate rounding errors, the moments are recomputed from the
+ * buffered samples after every window-length of evictions, which keeps the amortized cost constant.
+ */
+public class SlidingWindow {
+    private final int capacity;
+    private final long duration;
+    private double[] as;
+    private double[] bs;
+    private long[] times;
+    private int head;
+    private int count;
+    private long lastTime;
+    private int evictions;
+
+    private double meanA;
+    private double meanB;
+    private double m2A;
+    private double m2B;
+    private double comoment;
+
+    private SlidingWindow(int capacity, long duration, boolean timed) {
+        this.capacity = capacity;
+        this.duration = duration;
+        final int initial = timed ? 16 : capacity;
+        this.as = new double[initial];
+        this.bs = new double[initial];
+        this.times = timed ? new long[initial] : null;
+        this.head = 0;
+        this.count = 0;
+        this.lastTime = Long.MIN_VALUE;
+        this.evictions = 0;
+    }
+
+    /**
+     * Creates a new count-based {@link SlidingWindow} that holds the most recent {@code size} samples.
+     *
+     * @param size the number of samples in the window
+     * @return a new count-based {@link SlidingWindow}
+     * @throws IllegalArgumentException if {@code size} is not positive
+     */
+    public static SlidingWindow ofCount(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Size must be positive");
+        }
+        return new SlidingWindow(size, 0, false);
+    }
+
+    /**
+     * Creates a new time-based {@link SlidingWindow} that holds the samples with timestamps in
+     * {@code (now - duration, now]}, where {@code now} is the most recent timestamp seen.
+     *
+     * @param duration the length of the window in the units of the timestamps
+     * @return a new time-based {@link SlidingWindow}
+     * @throws IllegalArgumentException if {@code duration} is not positive
+     */
+    public static SlidingWindow ofDuration(long duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        return new SlidingWindow(Integer.MAX_VALUE, duration, true);
+    }
+
+    /**
+     * Adds a sample to a count-based window, evicting the oldest sample if the window is full.
+     *
+     * @param a the value of the one series
+     * @param b the value of the other series
+     * @throws IllegalStateException if this window is time-based
+     */
+    public void add(double a, double b) {
+        if (this.times != null) {
+            throw new IllegalStateException("Time-based windows require a timestamp");
+        }
+        if (this.count == this.capacity) {
+            evict();
+        }
+        push(a, b);
+    }
+
+    /**
+     * Adds a sample to a time-based window, evicting the samples that fall out of the window.
+     *
+     * @param time the timestamp of the sample
+     * @param a    the value of the one series
+     * @param b    the value of the other series
+     * @throws IllegalStateException    if this window is count-based
+     * @throws IllegalArgumentException if {@code time} is less than a previous timestamp
+     */
+    public void add(long time, double a, double b) {
+        advance(time);
+        if (this.count == this.as.length) {
+            grow();
+        }
+        this.times[(this.head + this.count) % this.times.length] = time;
+        push(a, b);
+    }
+
+    /**
+     * Advances the time of a time-based window, evicting the samples that fall out of the window.
+     *
+     * @param time the current time
+     * @throws IllegalStateException    if this window is count-based
+     * @throws IllegalArgumentException if {@code time} is less than a previous timestamp
+     */
+    public void advance(long time) {
+        if (this.times == null) {
+            throw new IllegalStateException("Count-based windows have no time");
+        }
+        if (time < this.lastTime) {
+            throw new IllegalArgumentException("Timestamps must be non-decreasing");
+        }
+        this.lastTime = time;
+        while (this.count > 0 && this.times[this.head] <= time - this.duration) {
+            evict();
+        }
+    }
+
+    /**
+     * Returns the number of samples in this window.
+     *
+     * @return the number of samples in this window
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Returns the Pearson correlation coefficient of the samples in this window.
+     *
+     * @return the Pearson correlation coefficient of the samples in this window or {@link Double#NaN} if the window
+     * is empty or either series is constant
+     */
+    public double pearson() {
+        return this.comoment / (Math.sqrt(this.m2A) * Math.sqrt(this.m2B));
+    }
+
+    /**
+     * Returns the Cosine similarity of the samples in this window.
+     *
+     * @return the Cosine similarity of the samples in this window or {@link Double#NaN} if the window is empty or
+     * either series is zero
+     */
+    public double cosine() {
+        final double dot = this.comoment + this.count * this.meanA * this.meanB;
+        final double normA = this.m2A + this.count * this.meanA * this.meanA;
+        final double normB = this.m2B + this.count * this.meanB * this.meanB;
+        return dot / (Math.sqrt(normA) * Math.sqrt(normB));
+    }
+
+    private void push(double a, double b) {
+        final int index = (this.head + this.count) % this.as.length;
+        this.as[index] = a;
+        this.bs[index] = b;
+        this.count++;
+        final double dA = a - this.meanA;
+        this.meanA += dA / this.count;
+        final double dB = b - this.meanB;
+        this.meanB += dB / this.count;
+        this.m2A += dA * (a - this.meanA);
+        this.m2B += dB * (b - this.meanB);
+        this.comoment += dA * (b - this.meanB);
+    }
+
+    private void evict() {
+        final double a = this.as[this.head];
+        final double b = this.bs[this.head];
+        this.head = (this.head + 1) % this.as.length;
+        this.count--;
+        if (this.count == 0) {
+            this.meanA = 0;
+            this.meanB = 0;
+            this.m2A = 0;
+            this.m2B = 0;
+            this.comoment = 0;
+            this.evictions = 0;
+            return;
+        }
+        final double dA = a - this.meanA;
+        this.meanA -= dA / this.count;
+        final double dB = b - this.meanB;
+        this.meanB -= dB / this.count;
+        this.m2A = Math.max(this.m2A - dA * (a - this.meanA), 0);
+        this.m2B = Math.max(this.m2B - dB * (b - this.meanB), 0);
+        this.comoment -= dA * (b - this.meanB);
+        if (++this.evictions >= this.as.length) {
+            recompute();
+        }
+    }
+
+    /**
+     * Recomputes the moments from the buffered samples with the two-pass algorithm.
+     */
+    private void recompute() {
+        double sumA = 0;
+        double sumB = 0;
+        for (int i = 0; i < this.count; i++) {
+            final int index = (this.head + i) % this.as.length;
+            sumA += this.as[index];
+            sumB += this.bs[index];
+        }
+        this.meanA = sumA / this.count;
+        this.meanB = sumB / this.count;
+        this.m2A = 0;
+        this.m2B = 0;
+        this.comoment = 0;
+        for (int i = 0; i < this.count; i++) {
+            final int index = (this.head + i) % this.as.length;
+            final double dA = this.as[index] - this.meanA;
+            final double dB = this.bs[index] - this.meanB;
+            this.m2A += dA * dA;
+            this.m2B += dB * dB;
+            this.comoment += dA * dB;
+        }
+        this.evictions = 0;
+    }
+
+    private void grow() {
+        final int length = this.as.length * 2;
+        final double[] newAs = new double[length];
+        final double[] newBs = new double[length];
+        final long[] newTimes = new long[length];
+        for (int i = 0; i < this.count; i++) {
+            final int index = (this.head + i) % this.as.length;
+            newAs[i] = this.as[index];
+            newBs[i] = this.bs[index];
+            newTimes[i] = this.times[index];
+        }
+        this.as = newAs;
+        this.bs = newBs;
+        this.times = newTimes;
+        this.head = 0;
+    }
+}
@@ -0,0 +1,151 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of {@code int} elements backed by a sorted {@code int[]} array.
+ * <p>
+ * This representation is suitable for sets that are sparse over a large domain of identifiers, where neither hashing
+ * nor a {@link DenseIntSet bitset} is efficient. The set theoretic measures accept instances of this class and compute
+ * the intersection of two sets without allocating, choosing between a linear merge and a galloping (exponential
+ * search) intersection depending on the ratio of the sizes of the two sets.
+ */
+public class SortedIntSet {
+    /**
+     * The ratio of the sizes of the two sets above which the galloping intersection is used.
+     */
+    static final int GALLOP_THRESHOLD = 32;
+
+    private final int[] elements;
+
+    /**
+     * Create a new {@link SortedIntSet} from the given elements.
+     * <p>
+     * The input does not need to be sorted and may contain duplicates. The input is copied and will not be modified.
+     *
+     * @param elements the elements of the set
+     * @throws NullPointerException if {@code elements} is {@code null}
+     */
+    public SortedIntSet(int... elements) {
+        final int[] sorted = elements.clone();
+        Arrays.sort(sorted);
+        int unique = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[unique - 1]) {
+                sorted[unique++] = sorted[i];
+            }
+        }
+        this.elements = unique == sorted.length ? sorted : Arrays.copyOf(sorted, unique);
+    }
+
+    /**
+     * Returns the number of elements in this set.
+     *
+     * @return the number of elements in this set
+     */
+    public int size() {
+        return this.elements.length;
+    }
+
+    /**
+     * Returns whether this set is empty.
+     *
+     * @return {@code true} if this set contains no elements
+     */
+    public boolean isEmpty() {
+        return this.elements.length == 0;
+    }
+
+    /**
+     * Returns whether this set contains the given element.
+     *
+     * @param element the element to test
+     * @return {@code true} if this set contains {@code element}
+     */
+    public boolean contains(int element) {
+        return Arrays.binarySearch(this.elements, element) >= 0;
+    }
+
+    /**
+     * Returns a new array with the elements of this set in ascending order.
+     *
+     * @return a new array with the elements of this set in ascending order
+     */
+    public int[] toArray() {
+        return this.elements.clone();
+    }
+
+    /**
+     * Returns the number of elements in the intersection of this set and {@code other}.
+     *
+     * @param other the other set
+     * @return the number of elements in the intersection of this set and {@code other}
+     * @throws NullPointerException if {@code other} is {@code null}
+     */
+    public int intersection(SortedIntSet other) {
+        final int[] small;
+        final int[] big;
+        if (this.elements.length > other.elements.length) {
+            big = this.elements;
+            small = other.elements;
+        } else {
+            big = other.elements;
+            small = this.elements;
+        }
+        if (small.length == 0) {
+            return 0;
+        }
+        if (big.length / small.length >= GALLOP_THRESHOLD) {
+            return gallop(small, big);
+        } else {
+            return merge(small, big);
+        }
+    }
+
+    static int merge(int[] x, int[] y) {
+        int intersection = 0;
+        int i = 0;
+        int j = 0;
+        while (i < x.length && j < y.length) {
+            if (x[i] < y[j]) {
+                i++;
+            } else if (x[i] > y[j]) {
+                j++;
+            } else {
+                intersection++;
+                i++;
+                j++;
+            }
+        }
+        return intersection;
+    }
+
+    static int gallop(int[] small, int[] big) {
+        int intersection = 0;
+        int low = 0;
+        for (int x : small) {
+            if (big[low] < x) {
+                int bound = 1;
+                while (low + bound < big.length && big[low + bound] < x) {
+                    bound <<= 1;
+                }
+                final int from = low + (bound >>> 1);
+                final int to = Math.min(low + bound + 1, big.length);
+                final int index = Arrays.binarySearch(big, from, to, x);
+                if (index >= 0) {
+                    intersection++;
+                    low = index + 1;
+                } else {
+                    low = -index - 1;
+                }
+            } else if (big[low] == x) {
+                intersection++;
+                low++;
+            }
+            if (low >= big.length) {
+                break;
+            }
+        }
+        return intersection;
+    }
+}
@@ -0,0 +1,89 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+
+/**
+ * An immutable sparse vector of {@code double} values.
+ * <p>
+ * The vector is represented by a strictly increasing {@code int[]} of indices and a {@code double[]} of the values at
+ * these indices; all other components of the vector are zero. {@link Cosine#Cosine(SparseVector, SparseVector)} and
+ * {@link Pearson#Pearson(SparseVector, SparseVector)} accept instances of this class and only visit the stored
+ * components of the inputs.
+ */
+public class SparseVector {
+    private final int dimension;
+    private final int[] indices;
+    private final double[] values;
+
+    /**
+     * Create a new {@link SparseVector} from the given components.
+     * <p>
+     * The inputs are copied and will not be modified. Stored components may be zero.
+     *
+     * @param dimension the dimension of the vector
+     * @param indices   the indices of the stored components in strictly increasing order
+     * @param values    the values of the stored components
+     * @throws NullPointerException     if either {@code indices} or {@code values} is {@code null}
+     * @throws IllegalArgumentException if {@code dimension} is not positive
+     * @throws IllegalArgumentException if {@code indices} and {@code values} are of different size
+     * @throws IllegalArgumentException if {@code indices} is not strictly increasing or is outside
+     *                                  {@code [0, dimension)}
+     */
+    public SparseVector(int dimension, int[] indices, double[] values) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        if (indices.length != values.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+        for (int i = 0; i < indices.length; i++) {
+            if (indices[i] < 0 || indices[i] >= dimension || (i > 0 && indices[i] <= indices[i - 1])) {
+                throw new IllegalArgumentException("Indices must be strictly increasing and within the dimension");
+            }
+        }
+        this.dimension = dimension;
+        this.indices = indices.clone();
+        this.values = values.clone();
+    }
+
+    /**
+     * Returns the dimension of this vector.
+     *
+     * @return the dimension of this vector
+     */
+    public int dimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Returns the number of stored components of this vector.
+     *
+     * @return the number of stored components of this vector
+     */
+    public int stored() {
+        return this.indices.length;
+    }
+
+    /**
+     * Returns the value of the given component of this vector.
+     *
+     * @param index the index of the component
+     * @return the value of the component at {@code index}
+     * @throws IndexOutOfBoundsException if {@code index} is outside {@code [0, dimension)}
+     */
+    public double get(int index) {
+        if (index < 0 || index >= this.dimension) {
+            throw new IndexOutOfBoundsException("Index is outside the dimension");
+        }
+        final int position = Arrays.binarySearch(this.indices, index);
+        return position >= 0 ? this.values[position] : 0;
+    }
+
+    int[] indices() {
+        return this.indices;
+    }
+
+    double[] values() {
+        return this.values;
+    }
+}
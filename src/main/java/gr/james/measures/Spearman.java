@@ -27,35 +27,93 @@ public class Spearman {
             throw new IllegalArgumentException("Inputs cannot be empty");
         }
 
-        final Map<T, Integer[]> reverseIndex = new HashMap<>();
+        final Map<T, Integer> reverseIndex = new HashMap<>();
         int indexCount;
 
-        indexCount = 1;
+        indexCount = 0;
         for (T t : a) {
-            final Integer[] previous = reverseIndex.put(t, new Integer[]{indexCount, null});
+            final Integer previous = reverseIndex.put(t, indexCount);
             if (previous != null) {
                 throw new IllegalArgumentException("List contains duplicate elements");
             }
             indexCount++;
         }
 
+        final int[] ranksB = new int[indexCount];
         indexCount = 1;
         for (T t : b) {
-            final Integer[] previous = reverseIndex.get(t);
-            if (previous == null) {
+            final Integer index = reverseIndex.get(t);
+            if (index == null || indexCount > ranksB.length) {
                 throw new IllegalArgumentException("Inputs must have exactly the same elements");
             }
-            if (previous[1] != null) {
+            if (ranksB[index] != 0) {
                 throw new IllegalArgumentException("List contains duplicate elements");
             }
-            previous[1] = indexCount;
+            ranksB[index] = indexCount;
             indexCount++;
         }
+        if (indexCount <= ranksB.length) {
+            throw new IllegalArgumentException("Inputs must have exactly the same elements");
+        }
+
+        final double mean = (ranksB.length + 1) / 2.0;
+        double cov = 0;
+        double varA = 0;
+        double varB = 0;
+        for (int i = 0; i < ranksB.length; i++) {
+            final double aNext = i + 1 - mean;
+            final double bNext = ranksB[i] - mean;
+            cov += aNext * bNext;
+            varA += aNext * aNext;
+            varB += bNext * bNext;
+        }
+        this.value = correlation(cov, varA, varB);
+    }
+
+    /**
+     * Create a new {@link Spearman} from the given score vectors.
+     * <p>
+     * The elements {@code a[i]} and {@code b[i]} are the scores of the same item in the two inputs. The scores are
+     * converted to ranks, where tied scores receive the average of the ranks that they span, and the result is the
+     * Pearson correlation coefficient of the ranks. Scores are compared using
+     * {@link Double#compare(double, double)}.
+     *
+     * @param a the one score vector
+     * @param b the other score vector
+     * @throws NullPointerException     if either {@code a} or {@code b} is {@code null}
+     * @throws IllegalArgumentException if either {@code a} or {@code b} is empty
+     * @throws IllegalArgumentException if {@code a} and {@code b} are of different size
+     */
+    public Spearman(double[] a, double[] b) {
+        if (a.length == 0 || b.length == 0) {
+            throw new IllegalArgumentException("Inputs cannot be empty");
+        }
+        if (a.length != b.length) {
+            throw new IllegalArgumentException("Inputs must have the same size");
+        }
+
+        final double[] ranksA = Ranks.average(a);
+        final double[] ranksB = Ranks.average(b);
+
+        // Fractional ranks always sum to n(n+1)/2, so the mean is known without a separate pass
+        final double mean = (a.length + 1) / 2.0;
+        double cov = 0;
+        double varA = 0;
+        double varB = 0;
+        for (int i = 0; i < ranksA.length; i++) {
+            final double aNext = ranksA[i] - mean;
+            final double bNext = ranksB[i] - mean;
+            cov += aNext * bNext;
+            varA += aNext * aNext;
+            varB += bNext * bNext;
+        }
+        this.value = correlation(cov, varA, varB);
+    }
 
-        this.value = new Pearson(reverseIndex.keySet(),
-                v -> reverseIndex.get(v)[0],
-                v -> reverseIndex.get(v)[1]
-        ).value();
+    private static double correlation(double cov, double varA, double varB) {
+        final double value = cov / (Math.sqrt(varA) * Math.sqrt(varB));
+        assert Double.isNaN(value) || (value >= -1 - 1e-8 && value <= 1 + 1e-8);
+        return value;
     }
 
     /**
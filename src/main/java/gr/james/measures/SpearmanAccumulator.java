@@ -0,0 +1,153 @@
+package gr.james.measures;
+
+/**
+ * Streaming estimator of Spearman's rank correlation coefficient of an unbounded sequence of score pairs in bounded
+ * memory.
+ * <p>
+ * Each input keeps a mergeable quantile sketch of the scores seen so far. When a pair arrives, both scores are added
+ * to their sketches and mapped to their approximate fractional mid-ranks in {@code [0, 1]}, whose moments are
+ * accumulated in a {@link CorrelationAccumulator}. The estimate is the Pearson correlation coefficient of these
+ * ranks, like {@link Spearman#Spearman(double[], double[])} is of the exact ranks. The first {@code k} pairs are
+ * buffered and ranked together when the buffer fills, so that the estimate does not depend on the ranks of the first
+ * few pairs against an almost empty sketch, and until then the estimate is exact.
+ * <p>
+ * The accuracy knob is the parameter {@code k}. Each sketch keeps {@code O(k)} scores in {@code O(log(n / k))}
+ * levels, which is the entire memory of the accumulator, and estimates ranks within about {@code 1 / k} of their
+ * fraction. The rank errors are unbiased and largely cancel out in the moments, so the absolute error of the
+ * estimate is typically an order of magnitude below {@code 1 / k}, or below {@code 0.001} with the default {@code k}
+ * of {@value #DEFAULT_K}. Larger values of {@code k} trade memory and the {@code O(k)} time of each pair for accuracy.
+ * Ranks are taken against the sketches at the arrival of each pair, so the marginal distributions are assumed not to
+ * drift during the stream.
+ * <p>
+ * Accumulators of different parts of a stream can be combined with {@link #merge(SpearmanAccumulator)}. Scores are
+ * compared using {@link Double#compare(double, double)}. Instances of this class are not thread-safe.
+ */
+public class SpearmanAccumulator {
+    /**
+     * The default accuracy parameter.
+     */
+    public static final int DEFAULT_K = 200;
+
+    private final QuantileSketch sketchA;
+    private final QuantileSketch sketchB;
+    private final CorrelationAccumulator ranks;
+    private double[] bufferA;
+    private double[] bufferB;
+    private int buffered;
+
+    /**
+     * Create a new empty {@link SpearmanAccumulator} with the default accuracy parameter {@value #DEFAULT_K}.
+     */
+    public SpearmanAccumulator() {
+        this(DEFAULT_K);
+    }
+
+    /**
+     * Create a new empty {@link SpearmanAccumulator} with the given accuracy parameter.
+     *
+     * @param k the accuracy parameter, where ranks are estimated within about {@code 1 / k} in {@code O(k)} memory
+     * @throws IllegalArgumentException if {@code k} is less than {@code 8}
+     */
+    public SpearmanAccumulator(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("Parameter k must be at least 8");
+        }
+        this.sketchA = new QuantileSketch(k);
+        this.sketchB = new QuantileSketch(k);
+        this.ranks = new CorrelationAccumulator();
+        this.bufferA = new double[k];
+        this.bufferB = new double[k];
+        this.buffered = 0;
+    }
+
+    /**
+     * Adds a pair of scores.
+     *
+     * @param a the score of the item in the one input
+     * @param b the score of the item in the other input
+     */
+    public void add(double a, double b) {
+        this.sketchA.add(a);
+        this.sketchB.add(b);
+        if (this.bufferA == null) {
+            this.ranks.add(rankA(a), rankB(b));
+        } else {
+            this.bufferA[this.buffered] = a;
+            this.bufferB[this.buffered] = b;
+            if (++this.buffered == this.bufferA.length) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Adds the pairs of another accumulator, which must have the same accuracy parameter, to this accumulator.
+     * <p>
+     * The ranks that {@code other} has already accumulated are kept, so the result is as accurate as if each part had
+     * been accumulated separately. The {@code other} accumulator is not modified.
+     *
+     * @param other the other accumulator
+     * @throws NullPointerException     if {@code other} is {@code null}
+     * @throws IllegalArgumentException if {@code other} has a different accuracy parameter
+     */
+    public void merge(SpearmanAccumulator other) {
+        if (this.sketchA.k() != other.sketchA.k()) {
+            throw new IllegalArgumentException("Accumulators must have the same accuracy parameter");
+        }
+        if (other.bufferA != null) {
+            for (int i = 0; i < other.buffered; i++) {
+                add(other.bufferA[i], other.bufferB[i]);
+            }
+            return;
+        }
+        this.sketchA.merge(other.sketchA);
+        this.sketchB.merge(other.sketchB);
+        this.ranks.merge(other.ranks);
+        if (this.bufferA != null) {
+            flush();
+        }
+    }
+
+    /**
+     * Returns the number of pairs added to this accumulator.
+     *
+     * @return the number of pairs added to this accumulator
+     */
+    public long count() {
+        return this.sketchA.count();
+    }
+
+    /**
+     * Returns the estimate of the Spearman's rank correlation coefficient of the pairs added to this accumulator.
+     *
+     * @return the estimate of the Spearman's rank correlation coefficient of the pairs added to this accumulator or
+     * {@link Double#NaN} if fewer than two pairs have been added or either input is constant
+     */
+    public double value() {
+        if (this.bufferA == null) {
+            return this.ranks.pearson();
+        }
+        final CorrelationAccumulator exact = new CorrelationAccumulator();
+        for (int i = 0; i < this.buffered; i++) {
+            exact.add(rankA(this.bufferA[i]), rankB(this.bufferB[i]));
+        }
+        return exact.pearson();
+    }
+
+    private void flush() {
+        for (int i = 0; i < this.buffered; i++) {
+            this.ranks.add(rankA(this.bufferA[i]), rankB(this.bufferB[i]));
+        }
+        this.bufferA = null;
+        this.bufferB = null;
+        this.buffered = 0;
+    }
+
+    private double rankA(double a) {
+        return this.sketchA.rank(a) / this.sketchA.count();
+    }
+
+    private double rankB(double b) {
+        return this.sketchB.rank(b) / this.sketchB.count();
+    }
+}
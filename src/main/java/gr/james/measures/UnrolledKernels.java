@@ -0,0 +1,217 @@
+package gr.james.measures;
+
+/**
+ * Package-private unrolled implementations of the {@link Kernels}.
+ * <p>
+ * Each loop is unrolled by {@link #LANES} and keeps a separate accumulator per lane, which breaks the dependency chain
+ * of the floating point additions and allows the JIT compiler to vectorize the loop. The lanes are combined pairwise
+ * at the end and the remaining elements are added to the first lane. The Cosine and Pearson kernels are the moments
+ * kernel with zero and mean shifts respectively. The {@code float[]} overloads widen every element to {@code double}
+ * and accumulate in {@code double}.
+ */
+final class UnrolledKernels {
+    /**
+     * The number of independent accumulators of each sum.
+     */
+    static final int LANES = 4;
+
+    private UnrolledKernels() {
+    }
+
+    static double sum(double[] x, int offset, int length) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + LANES <= length; i += LANES) {
+            final int o = offset + i;
+            s0 += x[o];
+            s1 += x[o + 1];
+            s2 += x[o + 2];
+            s3 += x[o + 3];
+        }
+        for (; i < length; i++) {
+            s0 += x[offset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + LANES <= length; i += LANES) {
+            final int p = aOffset + i;
+            final int q = bOffset + i;
+            s0 += a[p] * b[q];
+            s1 += a[p + 1] * b[q + 1];
+            s2 += a[p + 2] * b[q + 2];
+            s3 += a[p + 3] * b[q + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double cosine(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        return moments(a, aOffset, 0, b, bOffset, 0, length, null);
+    }
+
+    static double pearson(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        final double averageA = sum(a, aOffset, length) / length;
+        final double averageB = sum(b, bOffset, length) / length;
+        return moments(a, aOffset, averageA, b, bOffset, averageB, length, null);
+    }
+
+    /**
+     * Computes the co-moment and the sums of squares of the shifted slices, stores them in {@code out[0]},
+     * {@code out[1]} and {@code out[2]} unless {@code out} is {@code null}, and returns their correlation, so that the
+     * correlation kernels need no scratch array.
+     */
+    static double moments(double[] a, int aOffset, double shiftA, double[] b, int bOffset, double shiftB, int length,
+                          double[] out) {
+        double ab0 = 0;
+        double ab1 = 0;
+        double ab2 = 0;
+        double ab3 = 0;
+        double aa0 = 0;
+        double aa1 = 0;
+        double aa2 = 0;
+        double aa3 = 0;
+        double bb0 = 0;
+        double bb1 = 0;
+        double bb2 = 0;
+        double bb3 = 0;
+        int i = 0;
+        for (; i + LANES <= length; i += LANES) {
+            final int p = aOffset + i;
+            final int q = bOffset + i;
+            final double a0 = a[p] - shiftA;
+            final double a1 = a[p + 1] - shiftA;
+            final double a2 = a[p + 2] - shiftA;
+            final double a3 = a[p + 3] - shiftA;
+            final double b0 = b[q] - shiftB;
+            final double b1 = b[q + 1] - shiftB;
+            final double b2 = b[q + 2] - shiftB;
+            final double b3 = b[q + 3] - shiftB;
+            ab0 += a0 * b0;
+            ab1 += a1 * b1;
+            ab2 += a2 * b2;
+            ab3 += a3 * b3;
+            aa0 += a0 * a0;
+            aa1 += a1 * a1;
+            aa2 += a2 * a2;
+            aa3 += a3 * a3;
+            bb0 += b0 * b0;
+            bb1 += b1 * b1;
+            bb2 += b2 * b2;
+            bb3 += b3 * b3;
+        }
+        for (; i < length; i++) {
+            final double a0 = a[aOffset + i] - shiftA;
+            final double b0 = b[bOffset + i] - shiftB;
+            ab0 += a0 * b0;
+            aa0 += a0 * a0;
+            bb0 += b0 * b0;
+        }
+        final double ab = (ab0 + ab1) + (ab2 + ab3);
+        final double aa = (aa0 + aa1) + (aa2 + aa3);
+        final double bb = (bb0 + bb1) + (bb2 + bb3);
+        if (out != null) {
+            out[0] = ab;
+            out[1] = aa;
+            out[2] = bb;
+        }
+        return ab / (Math.sqrt(aa) * Math.sqrt(bb));
+    }
+
+    static double sum(float[] x, int offset, int length) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + LANES <= length; i += LANES) {
+            final int o = offset + i;
+            s0 += x[o];
+            s1 += x[o + 1];
+            s2 += x[o + 2];
+            s3 += x[o + 3];
+        }
+        for (; i < length; i++) {
+            s0 += x[offset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    static double cosine(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return moments(a, aOffset, 0, b, bOffset, 0, length, null);
+    }
+
+    static double pearson(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        final double averageA = sum(a, aOffset, length) / length;
+        final double averageB = sum(b, bOffset, length) / length;
+        return moments(a, aOffset, averageA, b, bOffset, averageB, length, null);
+    }
+
+    static double moments(float[] a, int aOffset, double shiftA, float[] b, int bOffset, double shiftB, int length,
+                          double[] out) {
+        double ab0 = 0;
+        double ab1 = 0;
+        double ab2 = 0;
+        double ab3 = 0;
+        double aa0 = 0;
+        double aa1 = 0;
+        double aa2 = 0;
+        double aa3 = 0;
+        double bb0 = 0;
+        double bb1 = 0;
+        double bb2 = 0;
+        double bb3 = 0;
+        int i = 0;
+        for (; i + LANES <= length; i += LANES) {
+            final int p = aOffset + i;
+            final int q = bOffset + i;
+            final double a0 = a[p] - shiftA;
+            final double a1 = a[p + 1] - shiftA;
+            final double a2 = a[p + 2] - shiftA;
+            final double a3 = a[p + 3] - shiftA;
+            final double b0 = b[q] - shiftB;
+            final double b1 = b[q + 1] - shiftB;
+            final double b2 = b[q + 2] - shiftB;
+            final double b3 = b[q + 3] - shiftB;
+            ab0 += a0 * b0;
+            ab1 += a1 * b1;
+            ab2 += a2 * b2;
+            ab3 += a3 * b3;
+            aa0 += a0 * a0;
+            aa1 += a1 * a1;
+            aa2 += a2 * a2;
+            aa3 += a3 * a3;
+            bb0 += b0 * b0;
+            bb1 += b1 * b1;
+            bb2 += b2 * b2;
+            bb3 += b3 * b3;
+        }
+        for (; i < length; i++) {
+            final double a0 = a[aOffset + i] - shiftA;
+            final double b0 = b[bOffset + i] - shiftB;
+            ab0 += a0 * b0;
+            aa0 += a0 * a0;
+            bb0 += b0 * b0;
+        }
+        final double ab = (ab0 + ab1) + (ab2 + ab3);
+        final double aa = (aa0 + aa1) + (aa2 + aa3);
+        final double bb = (bb0 + bb1) + (bb2 + bb3);
+        if (out != null) {
+            out[0] = ab;
+            out[1] = aa;
+            out[2] = bb;
+        }
+        return ab / (Math.sqrt(aa) * Math.sqrt(bb));
+    }
+}
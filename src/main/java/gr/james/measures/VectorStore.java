@@ -0,0 +1,365 @@
+package gr.james.measures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Store of vectors for exact top-k Cosine similarity search.
+ * <p>
+ * The vectors are normalized to unit L2 norm when they are added and are stored contiguously in a single
+ * {@code double[]}, so the Cosine similarity of a query with every stored vector reduces to a dot product. A query
+ * scans the store in blocks of vectors, computing several dot products per pass over the query, and keeps the best
+ * {@code k} results in a bounded heap of primitive arrays, without any per-candidate allocation. Queries can optionally
+ * be executed in parallel over shards of the store.
+ * <p>
+ * Adding vectors is not thread-safe, but any number of queries can run concurrently when no vectors are being added.
+ */
+public class VectorStore {
+    /**
+     * The number of vectors in each shard of a parallel query.
+     */
+    static final int SHARD = 4096;
+    /**
+     * The maximum length of the data array, which some VMs limit below {@link Integer#MAX_VALUE} as in
+     * {@link java.util.ArrayList}.
+     */
+    static final int MAX_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final int dimension;
+    private double[] data;
+    private int size;
+
+    /**
+     * Create a new empty {@link VectorStore} for vectors of the given dimension.
+     *
+     * @param dimension the dimension of the vectors
+     * @throws IllegalArgumentException if {@code dimension} is not positive
+     */
+    public VectorStore(int dimension) {
+        if (dimension <= 0) {
+            throw new IllegalArgumentException("Dimension must be positive");
+        }
+        this.dimension = dimension;
+        this.data = new double[Math.min(16, MAX_LENGTH / dimension) * dimension];
+        this.size = 0;
+    }
+
+    /**
+     * Adds the given vector to this store.
+     * <p>
+     * The input is copied and will not be modified.
+     *
+     * @param vector the vector to add
+     * @return the id of the vector, which is the number of vectors added before it
+     * @throws NullPointerException     if {@code vector} is {@code null}
+     * @throws IllegalArgumentException if {@code vector} does not have the dimension of this store
+     * @throws IllegalArgumentException if {@code vector} is zero
+     * @throws ArithmeticException      if the vectors of this store would not fit in an array
+     */
+    public int add(double[] vector) {
+        final double norm = checkVector(vector);
+        final long end = (long) (this.size + 1) * this.dimension;
+        if (end > MAX_LENGTH) {
+            throw new ArithmeticException("Store cannot hold more vectors");
+        }
+        final int offset = this.size * this.dimension;
+        if (end > this.data.length) {
+            final int length = (int) Math.max(end, Math.min(2L * this.data.length, MAX_LENGTH));
+            this.data = Arrays.copyOf(this.data, length);
+        }
+        for (int i = 0; i < this.dimension; i++) {
+            this.data[offset + i] = vector[i] / norm;
+        }
+        return this.size++;
+    }
+
+    /**
+     * Returns the number of vectors in this store.
+     *
+     * @return the number of vectors in this store
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the dimension of the vectors in this store.
+     *
+     * @return the dimension of the vectors in this store
+     */
+    public int dimension() {
+        return this.dimension;
+    }
+
+    /**
+     * Returns the {@code k} stored vectors with the highest Cosine similarity to the given query.
+     *
+     * @param query the query vector
+     * @param k     the maximum number of results
+     * @return the results in descending order of similarity
+     * @throws NullPointerException     if {@code query} is {@code null}
+     * @throws IllegalArgumentException if {@code query} does not have the dimension of this store or is zero
+     * @throws IllegalArgumentException if {@code k} is not positive
+     */
+    public Result query(double[] query, int k) {
+        final double[] q = normalizedQuery(query, k);
+        final Heap heap = new Heap(Math.min(k, this.size));
+        scan(q, 0, this.size, heap);
+        return heap.toResult();
+    }
+
+    /**
+     * Returns the {@code k} stored vectors with the highest Cosine similarity to the given query, scanning shards of
+     * the store in parallel on the given {@link ForkJoinPool}.
+     *
+     * @param query the query vector
+     * @param k     the maximum number of results
+     * @param pool  the pool to execute the query on
+     * @return the results in descending order of similarity
+     * @throws NullPointerException     if either {@code query} or {@code pool} is {@code null}
+     * @throws IllegalArgumentException if {@code query} does not have the dimension of this store or is zero
+     * @throws IllegalArgumentException if {@code k} is not positive
+     */
+    public Result query(double[] query, int k, ForkJoinPool pool) {
+        final double[] q = normalizedQuery(query, k);
+        return pool.invoke(new ShardTask(q, Math.min(k, this.size), 0, this.size)).toResult();
+    }
+
+    private final class ShardTask extends RecursiveTask<Heap> {
+        private static final long serialVersionUID = 1L;
+
+        private final double[] q;
+        private final int k;
+        private final int from;
+        private final int to;
+
+        ShardTask(double[] q, int k, int from, int to) {
+            this.q = q;
+            this.k = k;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Heap compute() {
+            if (this.to - this.from > SHARD) {
+                final int middle = (this.from + this.to) >>> 1;
+                final ShardTask right = new ShardTask(this.q, this.k, middle, this.to);
+                right.fork();
+                final Heap heap = new ShardTask(this.q, this.k, this.from, middle).compute();
+                final Heap other = right.join();
+                for (int i = 0; i < other.size; i++) {
+                    heap.offer(other.ids[i], other.scores[i]);
+                }
+                return heap;
+            }
+            final Heap heap = new Heap(this.k);
+            scan(this.q, this.from, this.to, heap);
+            return heap;
+        }
+    }
+
+    /**
+     * Offers the vectors in {@code [from, to)} to the heap, computing four dot products per pass over the query.
+     */
+    private void scan(double[] q, int from, int to, Heap heap) {
+        final int d = this.dimension;
+        final double[] data = this.data;
+        int id = from;
+        for (; id + 4 <= to; id += 4) {
+            final int o0 = id * d;
+            final int o1 = o0 + d;
+            final int o2 = o1 + d;
+            final int o3 = o2 + d;
+            double s0 = 0;
+            double s1 = 0;
+            double s2 = 0;
+            double s3 = 0;
+            for (int i = 0; i < d; i++) {
+                final double x = q[i];
+                s0 += x * data[o0 + i];
+                s1 += x * data[o1 + i];
+                s2 += x * data[o2 + i];
+                s3 += x * data[o3 + i];
+            }
+            heap.offer(id, s0);
+            heap.offer(id + 1, s1);
+            heap.offer(id + 2, s2);
+            heap.offer(id + 3, s3);
+        }
+        for (; id < to; id++) {
+            final int o = id * d;
+            double s = 0;
+            for (int i = 0; i < d; i++) {
+                s += q[i] * data[o + i];
+            }
+            heap.offer(id, s);
+        }
+    }
+
+    private double[] normalizedQuery(double[] query, int k) {
+        final double norm = checkVector(query);
+        if (k <= 0) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        final double[] q = new double[this.dimension];
+        for (int i = 0; i < this.dimension; i++) {
+            q[i] = query[i] / norm;
+        }
+        return q;
+    }
+
+    /**
+     * Returns the norm of the given vector after checking that it has the dimension of this store and is not zero.
+     */
+    private double checkVector(double[] vector) {
+        if (vector.length != this.dimension) {
+            throw new IllegalArgumentException("Vector must have the dimension of the store");
+        }
+        final double norm = norm(vector);
+        if (norm == 0) {
+            throw new IllegalArgumentException("Vector cannot be zero");
+        }
+        return norm;
+    }
+
+    private static double norm(double[] vector) {
+        double sum = 0;
+        for (double x : vector) {
+            sum += x * x;
+        }
+        return Math.sqrt(sum);
+    }
+
+    /**
+     * Bounded min-heap of (id, score) pairs that keeps the {@code k} highest scores.
+     */
+    private static final class Heap {
+        private final int[] ids;
+        private final double[] scores;
+        private int size;
+
+        Heap(int k) {
+            this.ids = new int[k];
+            this.scores = new double[k];
+            this.size = 0;
+        }
+
+        void offer(int id, double score) {
+            if (this.size < this.ids.length) {
+                int i = this.size++;
+                while (i > 0) {
+                    final int parent = (i - 1) >>> 1;
+                    if (this.scores[parent] <= score) {
+                        break;
+                    }
+                    this.ids[i] = this.ids[parent];
+                    this.scores[i] = this.scores[parent];
+                    i = parent;
+                }
+                this.ids[i] = id;
+                this.scores[i] = score;
+            } else if (score > this.scores[0]) {
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= this.size) {
+                        break;
+                    }
+                    if (child + 1 < this.size && this.scores[child + 1] < this.scores[child]) {
+                        child++;
+                    }
+                    if (this.scores[child] >= score) {
+                        break;
+                    }
+                    this.ids[i] = this.ids[child];
+                    this.scores[i] = this.scores[child];
+                    i = child;
+                }
+                this.ids[i] = id;
+                this.scores[i] = score;
+            }
+        }
+
+        /**
+         * Empties this heap into a {@link Result} in descending order of score.
+         */
+        Result toResult() {
+            final int[] ids = new int[this.size];
+            final double[] scores = new double[this.size];
+            for (int r = this.size - 1; r >= 0; r--) {
+                ids[r] = this.ids[0];
+                scores[r] = this.scores[0];
+                final int lastId = this.ids[this.size - 1];
+                final double lastScore = this.scores[this.size - 1];
+                this.size--;
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= this.size) {
+                        break;
+                    }
+                    if (child + 1 < this.size && this.scores[child + 1] < this.scores[child]) {
+                        child++;
+                    }
+                    if (this.scores[child] >= lastScore) {
+                        break;
+                    }
+                    this.ids[i] = this.ids[child];
+                    this.scores[i] = this.scores[child];
+                    i = child;
+                }
+                if (this.size > 0) {
+                    this.ids[i] = lastId;
+                    this.scores[i] = lastScore;
+                }
+            }
+            return new Result(ids, scores);
+        }
+    }
+
+    /**
+     * The result of a {@link VectorStore} query.
+     */
+    public static final class Result {
+        private final int[] ids;
+        private final double[] scores;
+
+        private Result(int[] ids, double[] scores) {
+            this.ids = ids;
+            this.scores = scores;
+        }
+
+        /**
+         * Returns the number of results.
+         *
+         * @return the number of results
+         */
+        public int size() {
+            return this.ids.length;
+        }
+
+        /**
+         * Returns the id of the result at the given rank.
+         *
+         * @param rank the rank of the result, where {@code 0} is the most similar
+         * @return the id of the result at {@code rank}
+         * @throws IndexOutOfBoundsException if {@code rank} is not in {@code [0, size())}
+         */
+        public int id(int rank) {
+            return this.ids[rank];
+        }
+
+        /**
+         * Returns the Cosine similarity of the result at the given rank.
+         *
+         * @param rank the rank of the result, where {@code 0} is the most similar
+         * @return the Cosine similarity of the result at {@code rank}
+         * @throws IndexOutOfBoundsException if {@code rank} is not in {@code [0, size())}
+         */
+        public double score(int rank) {
+            return this.scores[rank];
+        }
+    }
+}
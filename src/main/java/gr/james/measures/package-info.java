@@ -9,11 +9,19 @@
  *     <li>{@link gr.james.measures.SimpleMatching Simple Matching coefficient}</li>
  *     <li>{@link gr.james.measures.Sorensen Sorensen-Dice coefficient}</li>
  * </ul>
+ * All set theoretic measures, as well as the set forms of Cosine similarity and Pearson correlation coefficient, can
+ * also be created from a {@link gr.james.measures.Contingency Contingency} table, which is computed once per pair of
+ * sets.
+ * <p>
  * Rank correlation measures:
  * <ul>
  *     <li>{@link gr.james.measures.Kendall Kendall rank correlation coefficient}</li>
  *     <li>{@link gr.james.measures.Spearman Spearman's rank correlation coefficient}</li>
  * </ul>
+ * Both rank correlation measures can also be estimated from a sample with a confidence interval of a requested width,
+ * using {@link gr.james.measures.ApproximateKendall ApproximateKendall} and
+ * {@link gr.james.measures.ApproximateSpearman ApproximateSpearman}.
+ * <p>
  * Quantity correlation measures:
  * <ul>
  *     <li>{@link gr.james.measures.Cosine Cosine similarity}</li>
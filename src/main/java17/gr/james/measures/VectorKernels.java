@@ -0,0 +1,112 @@
+package gr.james.measures;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Package-private implementations of the {@link Kernels} using the incubating Vector API.
+ * <p>
+ * Each loop processes two vectors of the preferred species per iteration into two independent vector accumulators,
+ * which are added and reduced at the end. The remaining elements are added sequentially. Fused multiply-add is not
+ * used, so that the products are rounded the same way as in {@link UnrolledKernels}.
+ */
+final class VectorKernels {
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorKernels() {
+    }
+
+    static double sum(double[] x, int offset, int length) {
+        final int step = SPECIES.length();
+        DoubleVector s0 = DoubleVector.zero(SPECIES);
+        DoubleVector s1 = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i + 2 * step <= length; i += 2 * step) {
+            s0 = s0.add(DoubleVector.fromArray(SPECIES, x, offset + i));
+            s1 = s1.add(DoubleVector.fromArray(SPECIES, x, offset + i + step));
+        }
+        double sum = s0.add(s1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += x[offset + i];
+        }
+        return sum;
+    }
+
+    static double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        final int step = SPECIES.length();
+        DoubleVector s0 = DoubleVector.zero(SPECIES);
+        DoubleVector s1 = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i + 2 * step <= length; i += 2 * step) {
+            final DoubleVector a0 = DoubleVector.fromArray(SPECIES, a, aOffset + i);
+            final DoubleVector a1 = DoubleVector.fromArray(SPECIES, a, aOffset + i + step);
+            final DoubleVector b0 = DoubleVector.fromArray(SPECIES, b, bOffset + i);
+            final DoubleVector b1 = DoubleVector.fromArray(SPECIES, b, bOffset + i + step);
+            s0 = s0.add(a0.mul(b0));
+            s1 = s1.add(a1.mul(b1));
+        }
+        double sum = s0.add(s1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    static double cosine(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        return moments(a, aOffset, 0, b, bOffset, 0, length, null);
+    }
+
+    static double pearson(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        final double averageA = sum(a, aOffset, length) / length;
+        final double averageB = sum(b, bOffset, length) / length;
+        return moments(a, aOffset, averageA, b, bOffset, averageB, length, null);
+    }
+
+    /**
+     * Computes the co-moment and the sums of squares of the shifted slices, stores them in {@code out[0]},
+     * {@code out[1]} and {@code out[2]} unless {@code out} is {@code null}, and returns their correlation, so that the
+     * correlation kernels need no scratch array.
+     */
+    static double moments(double[] a, int aOffset, double shiftA, double[] b, int bOffset, double shiftB, int length,
+                          double[] out) {
+        final int step = SPECIES.length();
+        final DoubleVector vShiftA = DoubleVector.broadcast(SPECIES, shiftA);
+        final DoubleVector vShiftB = DoubleVector.broadcast(SPECIES, shiftB);
+        DoubleVector ab0 = DoubleVector.zero(SPECIES);
+        DoubleVector ab1 = DoubleVector.zero(SPECIES);
+        DoubleVector aa0 = DoubleVector.zero(SPECIES);
+        DoubleVector aa1 = DoubleVector.zero(SPECIES);
+        DoubleVector bb0 = DoubleVector.zero(SPECIES);
+        DoubleVector bb1 = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i + 2 * step <= length; i += 2 * step) {
+            final DoubleVector a0 = DoubleVector.fromArray(SPECIES, a, aOffset + i).sub(vShiftA);
+            final DoubleVector a1 = DoubleVector.fromArray(SPECIES, a, aOffset + i + step).sub(vShiftA);
+            final DoubleVector b0 = DoubleVector.fromArray(SPECIES, b, bOffset + i).sub(vShiftB);
+            final DoubleVector b1 = DoubleVector.fromArray(SPECIES, b, bOffset + i + step).sub(vShiftB);
+            ab0 = ab0.add(a0.mul(b0));
+            ab1 = ab1.add(a1.mul(b1));
+            aa0 = aa0.add(a0.mul(a0));
+            aa1 = aa1.add(a1.mul(a1));
+            bb0 = bb0.add(b0.mul(b0));
+            bb1 = bb1.add(b1.mul(b1));
+        }
+        double ab = ab0.add(ab1).reduceLanes(VectorOperators.ADD);
+        double aa = aa0.add(aa1).reduceLanes(VectorOperators.ADD);
+        double bb = bb0.add(bb1).reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            final double x = a[aOffset + i] - shiftA;
+            final double y = b[bOffset + i] - shiftB;
+            ab += x * y;
+            aa += x * x;
+            bb += y * y;
+        }
+        if (out != null) {
+            out[0] = ab;
+            out[1] = aa;
+            out[2] = bb;
+        }
+        return ab / (Math.sqrt(aa) * Math.sqrt(bb));
+    }
+}
@@ -0,0 +1,83 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ApproximateKendallTests {
+    /**
+     * On large inputs the interval must be narrower than requested, contain the exact value and use fewer samples
+     * than there are rows.
+     */
+    @Test
+    public void interval() {
+        final Random random = new Random(0);
+        final double[] a = new double[500000];
+        final double[] b = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(1000);
+            b[i] = a[i] + random.nextGaussian() * 300;
+        }
+        final double exact = new Kendall(a, b).value();
+        final ApproximateKendall approximate = new ApproximateKendall(a, b, 0.02, 0);
+        Assert.assertTrue(approximate.upper() - approximate.lower() <= 0.02);
+        Assert.assertTrue(approximate.lower() <= approximate.value() && approximate.value() <= approximate.upper());
+        Assert.assertTrue(approximate.lower() <= exact && exact <= approximate.upper());
+        Assert.assertTrue(approximate.samples() > 0 && approximate.samples() < a.length);
+    }
+
+    /**
+     * The same seed must result in the same estimate.
+     */
+    @Test
+    public void deterministic() {
+        final Random random = new Random(0);
+        final double[] a = new double[100000];
+        final double[] b = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextDouble();
+            b[i] = random.nextDouble() - a[i];
+        }
+        Assert.assertEquals(
+                new ApproximateKendall(a, b, 0.05, 7).value(), new ApproximateKendall(a, b, 0.05, 7).value(), 0
+        );
+    }
+
+    /**
+     * Small inputs must fall back to the exact value with an interval of zero width.
+     */
+    @Test
+    public void exact() {
+        final double[] a = {1, 2, 2, 3, 2};
+        final double[] b = {4, 1, 3, 2, 1};
+        final ApproximateKendall approximate = new ApproximateKendall(a, b, 0.01, 0);
+        Assert.assertEquals(new Kendall(a, b).value(), approximate.value(), 0);
+        Assert.assertEquals(approximate.value(), approximate.lower(), 0);
+        Assert.assertEquals(approximate.value(), approximate.upper(), 0);
+    }
+
+    /**
+     * A constant input must result in the exact {@link Double#NaN} without sampling the whole input first.
+     */
+    @Test
+    public void constant() {
+        final Random random = new Random(0);
+        final double[] a = new double[100000];
+        final double[] b = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            b[i] = random.nextGaussian();
+        }
+        final ApproximateKendall approximate = new ApproximateKendall(a, b, 0.01, 0);
+        Assert.assertTrue(Double.isNaN(approximate.value()));
+        Assert.assertEquals((long) a.length * (a.length - 1) / 2, approximate.samples());
+    }
+
+    /**
+     * The width must be positive.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void width() {
+        new ApproximateKendall(new double[]{1, 2}, new double[]{1, 2}, 0, 0);
+    }
+}
@@ -0,0 +1,99 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class ColumnFileTests {
+    /**
+     * {@link ColumnFile} must agree with {@link Pearson} and {@link Cosine} on the columns that were written.
+     */
+    @Test
+    public void equality() throws IOException {
+        for (ColumnFile.Type type : ColumnFile.Type.values()) {
+            final Random random = new Random(0);
+            final double[][] columns = new double[4][1000];
+            for (int i = 0; i < columns.length; i++) {
+                for (int k = 0; k < columns[i].length; k++) {
+                    columns[i][k] = type == ColumnFile.Type.DOUBLE ? random.nextGaussian() + i
+                            : (float) (random.nextGaussian() + i);
+                }
+            }
+            final Path path = write(type, columns);
+            // Small mappings force the columns to be split across several of them
+            for (int shift : new int[]{ColumnFile.SEGMENT_SHIFT, 6, 10}) {
+                try (ColumnFile file = new ColumnFile(path, shift)) {
+                    Assert.assertEquals(type, file.type());
+                    Assert.assertEquals(4, file.columns());
+                    Assert.assertEquals(1000, file.rows());
+                    Assert.assertEquals(columns[2][17], file.get(2, 17), 0);
+                    for (int i = 0; i < columns.length; i++) {
+                        for (int j = 0; j < columns.length; j++) {
+                            Assert.assertEquals(new Pearson(columns[i], columns[j]).value(), file.pearson(i, j), 1e-12);
+                            Assert.assertEquals(new Cosine(columns[i], columns[j]).value(), file.cosine(i, j), 1e-12);
+                        }
+                    }
+                }
+            }
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Files that are not column files must be rejected.
+     */
+    @Test(expected = IOException.class)
+    public void invalid() throws IOException {
+        final Path path = Files.createTempFile("measures", ".col");
+        try {
+            Files.write(path, new byte[100]);
+            new ColumnFile(path).close();
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Closing an incomplete file must fail.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void incomplete() throws IOException {
+        final Path path = Files.createTempFile("measures", ".col");
+        try {
+            try (ColumnFileWriter writer = new ColumnFileWriter(path, ColumnFile.Type.DOUBLE, 2, 3)) {
+                writer.write(new double[]{1, 2, 3, 4});
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Writing more elements than the shape of the file must fail.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void overflow() throws IOException {
+        final Path path = Files.createTempFile("measures", ".col");
+        try (ColumnFileWriter writer = new ColumnFileWriter(path, ColumnFile.Type.FLOAT, 1, 3)) {
+            writer.write(new float[]{1, 2, 3, 4});
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    private static Path write(ColumnFile.Type type, double[][] columns) throws IOException {
+        final Path path = Files.createTempFile("measures", ".col");
+        try (ColumnFileWriter writer = new ColumnFileWriter(path, type, columns.length, columns[0].length)) {
+            for (double[] column : columns) {
+                // Write each column in two chunks
+                writer.write(column, 0, 300);
+                writer.write(column, 300, column.length - 300);
+            }
+        }
+        return path;
+    }
+}
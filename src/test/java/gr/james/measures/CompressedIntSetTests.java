@@ -0,0 +1,102 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class CompressedIntSetTests {
+    /**
+     * Basic set operations across containers.
+     */
+    @Test
+    public void operations() {
+        final CompressedIntSet s = new CompressedIntSet();
+        Assert.assertTrue(s.add(-1));
+        Assert.assertTrue(s.add(1 << 20));
+        Assert.assertFalse(s.add(1 << 20));
+        for (int i = 0; i < 10000; i++) {
+            s.add(i);
+        }
+        Assert.assertEquals(10002, s.size());
+        s.runOptimize();
+        Assert.assertTrue(s.contains(9999));
+        Assert.assertFalse(s.contains(10000));
+        Assert.assertTrue(s.add(10000));
+        Assert.assertTrue(s.contains(-1));
+        Assert.assertEquals(10003, s.size());
+    }
+
+    /**
+     * Run containers must keep the runs of array and bitmap containers, including runs across words and at the ends.
+     */
+    @Test
+    public void runs() {
+        final int[][] runs = {{0, 0}, {2, 5}, {63, 64}, {100, 4000}, {4095, 4200}, {20000, 40000}, {65530, 65535}};
+        for (int limit : new int[]{4096, 1 << 16}) {
+            final CompressedIntSet s = new CompressedIntSet();
+            final Set<Integer> copy = new HashSet<>();
+            for (int[] run : runs) {
+                for (int x = run[0]; x <= run[1] && copy.size() < limit; x++) {
+                    s.add(x);
+                    copy.add(x);
+                }
+            }
+            s.runOptimize();
+            for (int x = 0; x < 1 << 16; x++) {
+                Assert.assertEquals(copy.contains(x), s.contains(x));
+            }
+            Assert.assertTrue(s.add(1));
+            Assert.assertTrue(s.contains(1));
+            Assert.assertTrue(s.contains(64));
+            Assert.assertEquals(copy.size() + 1, s.size());
+        }
+    }
+
+    /**
+     * Intersections must be exact for every combination of containers.
+     */
+    @Test
+    public void intersection() {
+        final Random random = new Random(0);
+        final int[][] densities = {{100, 0}, {20000, 0}, {0, 40}};
+        for (int[] x : densities) {
+            for (int[] y : densities) {
+                final Set<Integer> aSet = new HashSet<>();
+                final Set<Integer> bSet = new HashSet<>();
+                final CompressedIntSet a = randomSet(random, x[0], x[1], aSet);
+                final CompressedIntSet b = randomSet(random, y[0], y[1], bSet);
+                Assert.assertEquals(new Jaccard(aSet, bSet).value(), new Jaccard(a, b).value(), 0);
+                Assert.assertEquals(new Sorensen(aSet, bSet).value(), new Sorensen(a, b).value(), 0);
+                Assert.assertEquals(new Overlap(aSet, bSet).value(), new Overlap(a, b).value(), 0);
+                Assert.assertEquals(new Cosine(aSet, bSet).value(), new Cosine(a, b).value(), 0);
+            }
+        }
+    }
+
+    /**
+     * Creates a set over two chunks with the given number of random elements and random runs.
+     */
+    private static CompressedIntSet randomSet(Random random, int elements, int runs, Set<Integer> copy) {
+        final CompressedIntSet s = new CompressedIntSet();
+        for (int chunk = 0; chunk < 2; chunk++) {
+            for (int i = 0; i < elements; i++) {
+                final int x = (chunk << 16) | random.nextInt(1 << 16);
+                s.add(x);
+                copy.add(x);
+            }
+            for (int i = 0; i < runs; i++) {
+                final int start = random.nextInt(60000);
+                final int length = random.nextInt(500);
+                for (int k = start; k < start + length; k++) {
+                    s.add((chunk << 16) | k);
+                    copy.add((chunk << 16) | k);
+                }
+            }
+        }
+        s.runOptimize();
+        return s;
+    }
+}
@@ -0,0 +1,55 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class ContingencyTests {
+    /**
+     * The counts of the table.
+     */
+    @Test
+    public void counts() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2, 3));
+        final Set<Integer> b = new HashSet<>(Arrays.asList(3, 4));
+        final Set<Integer> world = new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6));
+        final Contingency c = new Contingency(a, b, world);
+        Assert.assertEquals(1, c.n11());
+        Assert.assertEquals(2, c.n10());
+        Assert.assertEquals(1, c.n01());
+        Assert.assertEquals(2, c.n00());
+        Assert.assertEquals(4, c.union());
+        Assert.assertEquals(6, c.world());
+        Assert.assertEquals(0, new Contingency(a, b).n00());
+    }
+
+    /**
+     * Measures created from a {@link Contingency} must be identical to the ones created from the sets.
+     */
+    @Test
+    public void measures() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2, 3, 5));
+        final Set<Integer> b = new HashSet<>(Arrays.asList(3, 4, 5));
+        final Set<Integer> world = new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6, 7));
+        final Contingency c = new Contingency(a, b, world);
+        Assert.assertEquals(new Jaccard(a, b).value(), new Jaccard(c).value(), 0);
+        Assert.assertEquals(new Sorensen(a, b).value(), new Sorensen(c).value(), 0);
+        Assert.assertEquals(new Overlap(a, b).value(), new Overlap(c).value(), 0);
+        Assert.assertEquals(new Cosine(a, b).value(), new Cosine(c).value(), 0);
+        Assert.assertEquals(new SimpleMatching(a, b, world).value(), new SimpleMatching(c).value(), 0);
+        Assert.assertEquals(new Pearson(a, b, world).value(), new Pearson(c).value(), 0);
+        Assert.assertEquals(new MutualInformation(a, b, world).mutualInformation(),
+                new MutualInformation(c).mutualInformation(), 0);
+    }
+
+    /**
+     * Negative counts must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void negative() {
+        new Contingency(1, -1, 0, 0);
+    }
+}
@@ -0,0 +1,127 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.util.Random;
+
+public class CorrelationAccumulatorTests {
+    /**
+     * Chunks of any size, single elements, slices and buffers must agree with {@link Pearson} and {@link Cosine} on
+     * the whole series.
+     */
+    @Test
+    public void equality() {
+        final Random random = new Random(0);
+        final double[] a = new double[10000];
+        final double[] b = new double[10000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = 1e6 + random.nextGaussian();
+            b[i] = a[i] + random.nextGaussian();
+        }
+        final CorrelationAccumulator accumulator = new CorrelationAccumulator();
+        final DoubleBuffer aDirect = ByteBuffer.allocateDirect(8 * 3000).asDoubleBuffer();
+        final DoubleBuffer bDirect = ByteBuffer.allocateDirect(8 * 3000).asDoubleBuffer();
+        int i = 0;
+        while (i < a.length) {
+            final int length = Math.min(random.nextInt(3000), a.length - i);
+            switch (random.nextInt(4)) {
+                case 0:
+                    accumulator.add(a, i, b, i, length);
+                    break;
+                case 1:
+                    accumulator.add(DoubleBuffer.wrap(a, i, length), DoubleBuffer.wrap(b, i, length));
+                    break;
+                case 2:
+                    aDirect.clear();
+                    bDirect.clear();
+                    aDirect.put(a, i, length).flip();
+                    bDirect.put(b, i, length).flip();
+                    accumulator.add(aDirect, bDirect);
+                    Assert.assertFalse(aDirect.hasRemaining());
+                    break;
+                default:
+                    for (int k = i; k < i + length; k++) {
+                        accumulator.add(a[k], b[k]);
+                    }
+            }
+            i += length;
+        }
+        Assert.assertEquals(a.length, accumulator.count());
+        Assert.assertEquals(new Pearson(a, b).value(), accumulator.pearson(), 1e-9);
+        Assert.assertEquals(new Cosine(a, b).value(), accumulator.cosine(), 1e-12);
+    }
+
+    /**
+     * Merging accumulators of disjoint parts must be equivalent to accumulating the whole series.
+     */
+    @Test
+    public void merge() {
+        final Random random = new Random(0);
+        final double[] a = new double[1000];
+        final double[] b = new double[1000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextGaussian();
+            b[i] = a[i] - random.nextGaussian();
+        }
+        final CorrelationAccumulator left = new CorrelationAccumulator();
+        final CorrelationAccumulator right = new CorrelationAccumulator();
+        left.add(a, 0, b, 0, 400);
+        right.add(a, 400, b, 400, 600);
+        left.merge(right);
+        left.merge(new CorrelationAccumulator());
+        Assert.assertEquals(1000, left.count());
+        Assert.assertEquals(new Pearson(a, b).value(), left.pearson(), 1e-12);
+        Assert.assertEquals(new Cosine(a, b).value(), left.cosine(), 1e-12);
+    }
+
+    /**
+     * An empty accumulator must result in {@link Double#NaN}.
+     */
+    @Test
+    public void empty() {
+        final CorrelationAccumulator accumulator = new CorrelationAccumulator();
+        accumulator.add(new double[0], new double[0]);
+        Assert.assertTrue(Double.isNaN(accumulator.pearson()));
+        Assert.assertTrue(Double.isNaN(accumulator.cosine()));
+    }
+
+    /**
+     * A {@link ChunkRing} must deliver every published chunk from a producer thread to the accumulator.
+     */
+    @Test
+    public void ring() throws InterruptedException {
+        final Random random = new Random(0);
+        final double[] a = new double[100000];
+        final double[] b = new double[100000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextGaussian();
+            b[i] = a[i] + random.nextGaussian();
+        }
+        final ChunkRing ring = new ChunkRing(4, 1000);
+        final Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < a.length; i += 700) {
+                    final ChunkRing.Chunk chunk = ring.claim();
+                    final int length = Math.min(700, a.length - i);
+                    System.arraycopy(a, i, chunk.a(), 0, length);
+                    System.arraycopy(b, i, chunk.b(), 0, length);
+                    ring.publish(chunk, length);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                ring.close();
+            }
+        });
+        producer.start();
+        final CorrelationAccumulator accumulator = new CorrelationAccumulator();
+        ring.drainTo(accumulator);
+        producer.join();
+        Assert.assertEquals(a.length, accumulator.count());
+        Assert.assertEquals(new Pearson(a, b).value(), accumulator.pearson(), 1e-12);
+        Assert.assertEquals(new Cosine(a, b).value(), accumulator.cosine(), 1e-12);
+    }
+}
@@ -0,0 +1,45 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class CorrelationMatrixTests {
+    /**
+     * Both layouts must agree with {@link Pearson} for every pair of columns.
+     */
+    @Test
+    public void pearsonEquality() {
+        final Random random = new Random(0);
+        final int m = 150;
+        final int n = 1500;
+        final double[][] columns = new double[m][n];
+        for (int i = 0; i < m; i++) {
+            for (int k = 0; k < n; k++) {
+                columns[i][k] = (i > 0 ? columns[i - 1][k] : 0) + random.nextGaussian();
+            }
+        }
+        final CorrelationMatrix matrix = new CorrelationMatrix(columns);
+        final double[] full = new double[matrix.length(CorrelationMatrix.Layout.FULL)];
+        final double[] upper = new double[matrix.length(CorrelationMatrix.Layout.UPPER)];
+        matrix.compute(full, CorrelationMatrix.Layout.FULL);
+        matrix.compute(upper, CorrelationMatrix.Layout.UPPER);
+        for (int i = 0; i < m; i++) {
+            for (int j = i; j < m; j++) {
+                final double expected = new Pearson(columns[i], columns[j]).value();
+                Assert.assertEquals(expected, full[i * m + j], 1e-10);
+                Assert.assertEquals(expected, full[j * m + i], 1e-10);
+                Assert.assertEquals(expected, upper[CorrelationMatrix.upperIndex(m, i, j)], 1e-10);
+            }
+        }
+    }
+
+    /**
+     * Short buffers must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shortBuffer() {
+        new CorrelationMatrix(new double[][]{{1, 2}, {2, 1}}).compute(new double[2], CorrelationMatrix.Layout.UPPER);
+    }
+}
@@ -3,9 +3,14 @@ package gr.james.measures;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 public class CosineTests {
@@ -72,4 +77,68 @@ public class CosineTests {
         Assert.assertEquals((2.0 + 6.0 + 24.0) / Math.sqrt((1.0 + 4.0 + 16.0) * (4.0 + 9.0 + 36.0)),
                 new Cosine(a, b).value(), 1e-8);
     }
+
+    /**
+     * The definition of {@link Cosine#Cosine(double[], double[])} must agree with
+     * {@link Cosine#Cosine(List, List)}.
+     */
+    @Test
+    public void arrayEquality() {
+        final Random random = new Random(0);
+        final double[] a = new double[1000];
+        final double[] b = new double[1000];
+        final List<Double> aList = new ArrayList<>();
+        final List<Double> bList = new ArrayList<>();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextDouble();
+            b[i] = random.nextDouble();
+            aList.add(a[i]);
+            bList.add(b[i]);
+        }
+        Assert.assertEquals(new Cosine(aList, bList).value(), new Cosine(a, b).value(), Kernels.TOLERANCE);
+        Assert.assertEquals(new Cosine(aList, bList).value(),
+                new Cosine(DoubleBuffer.wrap(a), DoubleBuffer.wrap(b)).value(), Kernels.TOLERANCE);
+    }
+
+    /**
+     * The {@code float} forms of {@link Cosine} must agree with the {@code double} forms on the widened inputs.
+     */
+    @Test
+    public void floatEquality() {
+        final Random random = new Random(0);
+        final float[] a = new float[1001];
+        final float[] b = new float[1001];
+        final double[] aDouble = new double[a.length];
+        final double[] bDouble = new double[b.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (float) random.nextDouble();
+            b[i] = (float) (a[i] + random.nextDouble());
+            aDouble[i] = a[i];
+            bDouble[i] = b[i];
+        }
+        final double expected = new Cosine(aDouble, bDouble).value();
+        Assert.assertEquals(expected, new Cosine(a, b).value(), Kernels.TOLERANCE);
+        final double[] aSlice = Arrays.copyOfRange(aDouble, 1, 1001);
+        final double[] bSlice = Arrays.copyOfRange(bDouble, 0, 1000);
+        Assert.assertEquals(new Cosine(aSlice, bSlice).value(),
+                new Cosine(a, 1, b, 0, 1000).value(), Kernels.TOLERANCE);
+        Assert.assertEquals(expected, new Cosine(FloatBuffer.wrap(a), FloatBuffer.wrap(b)).value(), Kernels.TOLERANCE);
+        final FloatBuffer aDirect = ByteBuffer.allocateDirect(4 * a.length).asFloatBuffer().put(a);
+        final FloatBuffer bDirect = ByteBuffer.allocateDirect(4 * b.length).asFloatBuffer().put(b);
+        aDirect.flip();
+        bDirect.flip();
+        Assert.assertEquals(expected, new Cosine(aDirect, bDirect).value(), Kernels.TOLERANCE);
+        Assert.assertEquals(0, aDirect.position());
+    }
+
+    /**
+     * Slices of arrays must only consider the specified region.
+     */
+    @Test
+    public void slice() {
+        final double[] a = {7.0, 1.0, 2.0, 4.0};
+        final double[] b = {2.0, 3.0, 6.0, 7.0};
+        Assert.assertEquals((2.0 + 6.0 + 24.0) / Math.sqrt((1.0 + 4.0 + 16.0) * (4.0 + 9.0 + 36.0)),
+                new Cosine(a, 1, b, 0, 3).value(), 1e-8);
+    }
 }
@@ -0,0 +1,83 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class DenseIntSetTests {
+    /**
+     * Basic set operations.
+     */
+    @Test
+    public void operations() {
+        final DenseIntSet s = new DenseIntSet(130);
+        Assert.assertTrue(s.isEmpty());
+        Assert.assertTrue(s.add(0));
+        Assert.assertTrue(s.add(64));
+        Assert.assertTrue(s.add(129));
+        Assert.assertFalse(s.add(64));
+        Assert.assertEquals(3, s.size());
+        Assert.assertTrue(s.contains(129));
+        Assert.assertFalse(s.contains(130));
+        Assert.assertTrue(s.remove(64));
+        Assert.assertFalse(s.remove(64));
+        Assert.assertFalse(s.contains(64));
+        Assert.assertEquals(2, s.size());
+    }
+
+    /**
+     * Elements outside the universe must be rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void outOfUniverse() {
+        new DenseIntSet(10).add(10);
+    }
+
+    /**
+     * Measures on dense sets must be identical to the ones on hash sets with the universe as the world.
+     */
+    @Test
+    public void measures() {
+        final Random random = new Random(0);
+        final int universe = 1000;
+        final DenseIntSet a = new DenseIntSet(universe);
+        final DenseIntSet b = new DenseIntSet(universe);
+        final Set<Integer> aSet = new HashSet<>();
+        final Set<Integer> bSet = new HashSet<>();
+        final Set<Integer> world = new HashSet<>();
+        for (int i = 0; i < universe; i++) {
+            world.add(i);
+            if (random.nextInt(3) == 0) {
+                a.add(i);
+                aSet.add(i);
+            }
+            if (random.nextInt(4) == 0) {
+                b.add(i);
+                bSet.add(i);
+            }
+        }
+        Assert.assertEquals(new Jaccard(aSet, bSet).value(), new Jaccard(a, b).value(), 0);
+        Assert.assertEquals(new Sorensen(aSet, bSet).value(), new Sorensen(a, b).value(), 0);
+        Assert.assertEquals(new Overlap(aSet, bSet).value(), new Overlap(a, b).value(), 0);
+        Assert.assertEquals(new Cosine(aSet, bSet).value(), new Cosine(a, b).value(), 0);
+        Assert.assertEquals(new SimpleMatching(aSet, bSet, world).value(), new SimpleMatching(a, b).value(), 0);
+        Assert.assertEquals(new Pearson(aSet, bSet, world).value(), new Pearson(a, b).value(), 0);
+        Assert.assertEquals(new MutualInformation(aSet, bSet, world).mutualInformation(),
+                new MutualInformation(a, b).mutualInformation(), 0);
+    }
+
+    /**
+     * Sets with different universes must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void differentUniverse() {
+        final DenseIntSet a = new DenseIntSet(10);
+        final DenseIntSet b = new DenseIntSet(11);
+        a.add(1);
+        b.add(1);
+        new Jaccard(a, b);
+    }
+}
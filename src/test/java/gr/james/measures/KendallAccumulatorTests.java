@@ -0,0 +1,82 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class KendallAccumulatorTests {
+    /**
+     * The accumulator must agree with {@link Kendall} on every prefix of the pairs, with ties in both coordinates.
+     */
+    @Test
+    public void prefixEquality() {
+        final Random random = new Random(0);
+        final double[] a = new double[3000];
+        final double[] b = new double[3000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(500);
+            b[i] = random.nextInt(100) - a[i] / 10;
+        }
+        final KendallAccumulator accumulator = new KendallAccumulator();
+        for (int i = 0; i < a.length; i++) {
+            accumulator.add(a[i], b[i]);
+            if (i % 97 == 1) {
+                final double expected = new Kendall(Arrays.copyOf(a, i + 1), Arrays.copyOf(b, i + 1)).value();
+                Assert.assertEquals(expected, accumulator.value(), 1e-12);
+            }
+        }
+        Assert.assertEquals(a.length, accumulator.count());
+        Assert.assertEquals(new Kendall(a, b).value(), accumulator.value(), 1e-12);
+    }
+
+    /**
+     * Perfectly ordered and reversed pairs must result in 1 and -1.
+     */
+    @Test
+    public void extremes() {
+        final KendallAccumulator increasing = new KendallAccumulator();
+        final KendallAccumulator decreasing = new KendallAccumulator();
+        for (int i = 0; i < 100; i++) {
+            increasing.add(i, i * 2.0);
+            decreasing.add(i, -i);
+        }
+        Assert.assertEquals(1, increasing.value(), 1e-12);
+        Assert.assertEquals(-1, decreasing.value(), 1e-12);
+    }
+
+    /**
+     * Fewer than two pairs must result in {@link Double#NaN}.
+     */
+    @Test
+    public void empty() {
+        final KendallAccumulator accumulator = new KendallAccumulator();
+        Assert.assertTrue(Double.isNaN(accumulator.value()));
+        accumulator.add(1, 1);
+        Assert.assertTrue(Double.isNaN(accumulator.value()));
+    }
+
+    /**
+     * The value must not depend on the order in which the pairs are added.
+     */
+    @Test
+    public void order() {
+        final Random random = new Random(0);
+        final double[] a = new double[1000];
+        final double[] b = new double[1000];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i;
+            b[i] = random.nextInt(50) + i / 20;
+        }
+        final KendallAccumulator sorted = new KendallAccumulator();
+        final KendallAccumulator reversed = new KendallAccumulator();
+        for (int i = 0; i < a.length; i++) {
+            sorted.add(a[i], b[i]);
+            reversed.add(a[a.length - 1 - i], b[a.length - 1 - i]);
+        }
+        final double expected = new Kendall(a, b).value();
+        Assert.assertEquals(expected, sorted.value(), 1e-12);
+        Assert.assertEquals(sorted.value(), reversed.value(), 0);
+    }
+}
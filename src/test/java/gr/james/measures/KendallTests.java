@@ -3,8 +3,11 @@ package gr.james.measures;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 public class KendallTests {
     /**
@@ -56,4 +59,111 @@ public class KendallTests {
         final List<Integer> b = Arrays.asList(4, 1, 3, 2, 1);
         Assert.assertEquals(-3.0 / Math.sqrt(7 * 9), new Kendall(a, b).value(), 1e-8);
     }
+
+    /**
+     * The merge sort algorithm must agree with the quadratic algorithm when there are ties in both inputs.
+     */
+    @Test
+    public void knightEquality() {
+        final Random random = new Random(0);
+        for (int k = 0; k < 100; k++) {
+            final int size = 2 + random.nextInt(Kendall.QUADRATIC_THRESHOLD - 2);
+            final int[] a = new int[size];
+            final int[] b = new int[size];
+            final List<Integer> aList = new ArrayList<>();
+            final List<Integer> bList = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                a[i] = random.nextInt(5) - 2;
+                b[i] = random.nextInt(5) - 2;
+                aList.add(a[i]);
+                bList.add(b[i]);
+            }
+            Assert.assertEquals(new Kendall(aList, bList).value(), new Kendall(a, b).value(), 1e-12);
+        }
+    }
+
+    /**
+     * The {@code double} and the {@link Comparable} forms must agree with the {@code int} form on large inputs.
+     */
+    @Test
+    public void primitiveEquality() {
+        final Random random = new Random(0);
+        final int[] a = new int[1000];
+        final int[] b = new int[1000];
+        final double[] aDouble = new double[1000];
+        final double[] bDouble = new double[1000];
+        final List<Integer> aList = new ArrayList<>();
+        final List<Integer> bList = new ArrayList<>();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(100);
+            b[i] = a[i] + random.nextInt(50);
+            aDouble[i] = a[i] / 10.0;
+            bDouble[i] = b[i] / 10.0;
+            aList.add(a[i]);
+            bList.add(b[i]);
+        }
+        Assert.assertEquals(new Kendall(a, b).value(), new Kendall(aDouble, bDouble).value(), 0);
+        Assert.assertEquals(new Kendall(a, b).value(), new Kendall(aList, bList).value(), 0);
+    }
+
+    /**
+     * Test with ties on the primitive form.
+     */
+    @Test
+    public void tauBPrimitive() {
+        final double[] a = {1, 2, 2, 3, 2};
+        final double[] b = {4, 1, 3, 2, 1};
+        Assert.assertEquals(-3.0 / Math.sqrt(7 * 9), new Kendall(a, b).value(), 1e-8);
+    }
+
+    /**
+     * The parallel {@code int} form must agree with the sequential one, including extreme values and ties.
+     */
+    @Test
+    public void parallelInt() {
+        final Random random = new Random(0);
+        final int[] a = new int[4 * Kendall.LEAF_SIZE + 17];
+        final int[] b = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(1000) - 500;
+            b[i] = random.nextBoolean() ? a[i] * 3 : random.nextInt();
+        }
+        a[0] = Integer.MIN_VALUE;
+        b[1] = Integer.MAX_VALUE;
+        final int[] aCopy = a.clone();
+        final int[] bCopy = b.clone();
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assert.assertEquals(new Kendall(a, b).value(), new Kendall(a, b, pool).value(), 0);
+            Assert.assertArrayEquals(aCopy, a);
+            Assert.assertArrayEquals(bCopy, b);
+            Assert.assertEquals(
+                    new Kendall(new int[]{1, 2, 2, 3, 2}, new int[]{4, 1, 3, 2, 1}).value(),
+                    new Kendall(new int[]{1, 2, 2, 3, 2}, new int[]{4, 1, 3, 2, 1}, pool).value(), 0
+            );
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * The parallel {@code double} form must agree with the sequential one, including signed zeros, infinities and NaN.
+     */
+    @Test
+    public void parallelDouble() {
+        final Random random = new Random(0);
+        final double[] special = {-0.0, 0.0, Double.NaN, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY};
+        final double[] a = new double[4 * Kendall.LEAF_SIZE + 17];
+        final double[] b = new double[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(20) == 0 ? special[random.nextInt(special.length)] : random.nextInt(1000) / 7.0;
+            b[i] = random.nextBoolean() ? -a[i] : random.nextGaussian();
+        }
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Assert.assertEquals(new Kendall(a, b).value(), new Kendall(a, b, pool).value(), 0);
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,106 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class KernelsTests {
+    /**
+     * The sums and dot products of {@link Kernels} and {@link UnrolledKernels} must be within
+     * {@link Kernels#TOLERANCE} of the sequential loop, relative to the sum of the absolute values of the terms.
+     */
+    @Test
+    public void sums() {
+        final Random random = new Random(0);
+        for (int k = 0; k < 500; k++) {
+            final int length = random.nextInt(2000);
+            final int aOffset = random.nextInt(8);
+            final int bOffset = random.nextInt(8);
+            final double[] a = gaussian(random, aOffset + length);
+            final double[] b = gaussian(random, bOffset + length);
+            double sum = 0;
+            double sumScale = 0;
+            double dot = 0;
+            double dotScale = 0;
+            for (int i = 0; i < length; i++) {
+                sum += a[aOffset + i];
+                sumScale += Math.abs(a[aOffset + i]);
+                dot += a[aOffset + i] * b[bOffset + i];
+                dotScale += Math.abs(a[aOffset + i] * b[bOffset + i]);
+            }
+            final double sumTolerance = Kernels.TOLERANCE * Math.max(sumScale, 1);
+            final double dotTolerance = Kernels.TOLERANCE * Math.max(dotScale, 1);
+            Assert.assertEquals(sum, Kernels.sum(a, aOffset, length), sumTolerance);
+            Assert.assertEquals(sum, UnrolledKernels.sum(a, aOffset, length), sumTolerance);
+            Assert.assertEquals(dot, Kernels.dot(a, aOffset, b, bOffset, length), dotTolerance);
+            Assert.assertEquals(dot, UnrolledKernels.dot(a, aOffset, b, bOffset, length), dotTolerance);
+        }
+    }
+
+    /**
+     * The Cosine similarity and Pearson correlation coefficient of {@link Kernels} and {@link UnrolledKernels} must be
+     * within {@link Kernels#TOLERANCE} of the sequential loop.
+     */
+    @Test
+    public void correlations() {
+        final Random random = new Random(0);
+        for (int k = 0; k < 500; k++) {
+            final int length = 2 + random.nextInt(2000);
+            final int aOffset = random.nextInt(8);
+            final int bOffset = random.nextInt(8);
+            final double[] a = gaussian(random, aOffset + length);
+            final double[] b = gaussian(random, bOffset + length);
+            for (int i = 0; i < length; i++) {
+                b[bOffset + i] += a[aOffset + i] + 5;
+            }
+            double ab = 0;
+            double aa = 0;
+            double bb = 0;
+            double averageA = 0;
+            double averageB = 0;
+            for (int i = 0; i < length; i++) {
+                ab += a[aOffset + i] * b[bOffset + i];
+                aa += a[aOffset + i] * a[aOffset + i];
+                bb += b[bOffset + i] * b[bOffset + i];
+                averageA += a[aOffset + i];
+                averageB += b[bOffset + i];
+            }
+            final double cosine = ab / (Math.sqrt(aa) * Math.sqrt(bb));
+            averageA /= length;
+            averageB /= length;
+            double cov = 0;
+            double varA = 0;
+            double varB = 0;
+            for (int i = 0; i < length; i++) {
+                cov += (a[aOffset + i] - averageA) * (b[bOffset + i] - averageB);
+                varA += (a[aOffset + i] - averageA) * (a[aOffset + i] - averageA);
+                varB += (b[bOffset + i] - averageB) * (b[bOffset + i] - averageB);
+            }
+            final double pearson = cov / (Math.sqrt(varA) * Math.sqrt(varB));
+            Assert.assertEquals(cosine, Kernels.cosine(a, aOffset, b, bOffset, length), Kernels.TOLERANCE);
+            Assert.assertEquals(cosine, UnrolledKernels.cosine(a, aOffset, b, bOffset, length), Kernels.TOLERANCE);
+            Assert.assertEquals(pearson, Kernels.pearson(a, aOffset, b, bOffset, length), Kernels.TOLERANCE);
+            Assert.assertEquals(pearson, UnrolledKernels.pearson(a, aOffset, b, bOffset, length), Kernels.TOLERANCE);
+        }
+    }
+
+    /**
+     * Constant inputs must result in {@link Double#NaN} as in the sequential loop.
+     */
+    @Test
+    public void constant() {
+        final double[] a = {1, 1, 1, 1, 1, 1, 1, 1, 1};
+        final double[] b = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        Assert.assertTrue(Double.isNaN(Kernels.pearson(a, 0, b, 0, a.length)));
+        Assert.assertTrue(Double.isNaN(Kernels.cosine(new double[9], 0, b, 0, b.length)));
+    }
+
+    private static double[] gaussian(Random random, int length) {
+        final double[] x = new double[length];
+        for (int i = 0; i < length; i++) {
+            x[i] = random.nextGaussian();
+        }
+        return x;
+    }
+}
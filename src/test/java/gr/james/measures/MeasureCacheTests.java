@@ -0,0 +1,97 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MeasureCacheTests {
+    /**
+     * The value must be computed once per pair and version, in either order of the ids.
+     */
+    @Test
+    public void hits() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2, 3));
+        final Set<Integer> b = new HashSet<>(Arrays.asList(2, 3, 4));
+        final AtomicInteger computations = new AtomicInteger();
+        final MeasureCache cache = new MeasureCache(100);
+        for (int i = 0; i < 3; i++) {
+            final double x = cache.get(1, 2, 0, () -> {
+                computations.incrementAndGet();
+                return new Jaccard(a, b).value();
+            });
+            final double y = cache.get(2, 1, 0, () -> {
+                computations.incrementAndGet();
+                return new Jaccard(b, a).value();
+            });
+            Assert.assertEquals(0.5, x, 0);
+            Assert.assertEquals(0.5, y, 0);
+        }
+        Assert.assertEquals(1, computations.get());
+        Assert.assertEquals(1, cache.misses());
+        Assert.assertEquals(5, cache.hits());
+        Assert.assertEquals(2.0, cache.get(1, 2, 1, () -> 2.0), 0);
+        Assert.assertEquals(2, cache.misses());
+    }
+
+    /**
+     * The least recently used entries must be evicted beyond the capacity.
+     */
+    @Test
+    public void eviction() {
+        final MeasureCache cache = new MeasureCache(3, 1);
+        cache.get(0, 1, 0, () -> 1);
+        cache.get(0, 2, 0, () -> 2);
+        cache.get(0, 3, 0, () -> 3);
+        cache.get(0, 1, 0, () -> -1);
+        cache.get(0, 4, 0, () -> 4);
+        Assert.assertEquals(3, cache.size());
+        Assert.assertEquals(1, cache.get(0, 1, 0, () -> -1), 0);
+        Assert.assertEquals(-2, cache.get(0, 2, 0, () -> -2), 0);
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     * Concurrent queries must never exceed the capacity and must count every query as either a hit or a miss.
+     */
+    @Test
+    public void concurrent() throws InterruptedException {
+        final MeasureCache cache = new MeasureCache(64, 8);
+        final AtomicInteger errors = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final int seed = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    final long id = (i * 31L + seed) % 100;
+                    if (cache.get(id, id, 0, () -> id) != id) {
+                        errors.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertEquals(0, errors.get());
+        Assert.assertTrue(cache.size() <= 64);
+        Assert.assertEquals(40000, cache.hits() + cache.misses());
+    }
+
+    /**
+     * The number of stripes must be a power of two not greater than the capacity.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void stripes() {
+        new MeasureCache(10, 3);
+    }
+}
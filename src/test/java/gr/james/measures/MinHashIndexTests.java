@@ -0,0 +1,63 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class MinHashIndexTests {
+    /**
+     * Near duplicates must be found and dissimilar sets must be excluded.
+     */
+    @Test
+    public void query() {
+        final List<Set<Integer>> sets = new ArrayList<>();
+        final MinHashIndex<Integer> index = new MinHashIndex<>(16, 8);
+        for (int k = 0; k < 100; k++) {
+            final Set<Integer> s = new HashSet<>();
+            for (int i = 0; i < 100; i++) {
+                s.add(k * 1000 + i);
+            }
+            sets.add(s);
+            index.insert(k, new MinHash(s, 128, 0));
+        }
+        final Set<Integer> q = new HashSet<>(sets.get(42));
+        q.add(-1);
+        final MinHash sketch = new MinHash(q, 128, 0);
+        final Set<Integer> expected = new HashSet<>();
+        expected.add(42);
+        Assert.assertEquals(expected, index.query(q, sketch, 0.8, sets::get));
+        Assert.assertTrue(index.query(sketch, 0.8).contains(42));
+        Assert.assertTrue(index.remove(42));
+        Assert.assertFalse(index.remove(42));
+        Assert.assertEquals(99, index.size());
+        Assert.assertTrue(index.candidates(sketch).isEmpty());
+    }
+
+    /**
+     * An index that became empty must accept sketches with a different seed or length.
+     */
+    @Test
+    public void emptied() {
+        final Set<Integer> s = new HashSet<>();
+        s.add(1);
+        final MinHashIndex<Integer> index = new MinHashIndex<>(16, 8);
+        index.insert(0, new MinHash(s, 128, 0));
+        Assert.assertTrue(index.remove(0));
+        index.insert(1, new MinHash(s, 256, 1));
+        Assert.assertEquals(1, index.size());
+    }
+
+    /**
+     * Sketches shorter than the banding must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void shortSketch() {
+        final Set<Integer> s = new HashSet<>();
+        s.add(1);
+        new MinHashIndex<Integer>(16, 8).insert(0, new MinHash(s, 64, 0));
+    }
+}
@@ -0,0 +1,59 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+public class MinHashTests {
+    /**
+     * Must be 1 with same inputs.
+     */
+    @Test
+    public void identity() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2, 3, 4));
+        Assert.assertEquals(1.0, new Jaccard(new MinHash(a, 64, 0), new MinHash(a, 64, 0)).value(), 1e-8);
+    }
+
+    /**
+     * The estimate must be within a few standard errors of the exact value.
+     */
+    @Test
+    public void estimate() {
+        final Set<Integer> a = new HashSet<>();
+        final Set<Integer> b = new HashSet<>();
+        for (int i = 0; i < 10000; i++) {
+            a.add(i);
+            b.add(i + 5000);
+        }
+        final int k = 1024;
+        final double exact = new Jaccard(a, b).value();
+        final double estimate = new Jaccard(new MinHash(a, k, 42), new MinHash(b, k, 42)).value();
+        Assert.assertEquals(exact, estimate, 4 * 0.5 / Math.sqrt(k));
+    }
+
+    /**
+     * The merge of two sketches must be identical to the sketch of the union.
+     */
+    @Test
+    public void merge() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2, 3));
+        final Set<Integer> b = new HashSet<>(Arrays.asList(3, 4, 5));
+        final Set<Integer> union = new HashSet<>(a);
+        union.addAll(b);
+        final MinHash merged = new MinHash(a, 128, 7);
+        merged.merge(new MinHash(b, 128, 7));
+        Assert.assertArrayEquals(new MinHash(union, 128, 7).signature(), merged.signature());
+    }
+
+    /**
+     * Sketches with different seeds cannot be compared.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void incompatible() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2, 3));
+        new Jaccard(new MinHash(a, 128, 1), new MinHash(a, 128, 2));
+    }
+}
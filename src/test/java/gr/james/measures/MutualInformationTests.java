@@ -5,7 +5,9 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 public class MutualInformationTests {
     /**
@@ -29,4 +31,88 @@ public class MutualInformationTests {
         final Set<Integer> world = new HashSet<>(Arrays.asList(1, 2, 3, 4, 5, 6));
         Assert.assertEquals(new MutualInformation(b, a, world).normalizedMutualInformation(), new MutualInformation(a, b, world).normalizedMutualInformation(), 1e-8);
     }
+
+    /**
+     * Labelings must agree with reference values, including the example of scikit-learn.
+     */
+    @Test
+    public void labels() {
+        final MutualInformation x = new MutualInformation(new int[]{0, 0, 0, 1, 1, 1}, new int[]{0, 0, 1, 1, 2, 2});
+        Assert.assertEquals(2.0 / 3.0, x.mutualInformation(), 1e-12);
+        Assert.assertEquals(0.29879245817089023, x.adjustedMutualInformation(), 1e-12);
+        Assert.assertEquals(0.22504228319830902,
+                x.adjustedMutualInformation(MutualInformation.Normalization.MAX), 1e-12);
+        Assert.assertEquals(0.5295405780575617,
+                x.normalizedMutualInformation(MutualInformation.Normalization.GEOMETRIC), 1e-12);
+        Assert.assertEquals(2 / 3.0, x.normalizedMutualInformation(MutualInformation.Normalization.MIN), 1e-12);
+
+        final int[] a = new int[500];
+        final int[] b = new int[500];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = i % 7;
+            b[i] = (i * i + i / 5) % 11;
+        }
+        final MutualInformation y = new MutualInformation(a, b);
+        Assert.assertEquals(0.019153380032989827, y.mutualInformation(), 1e-12);
+        Assert.assertEquals(-0.023839034682425368, y.adjustedMutualInformation(), 1e-12);
+    }
+
+    /**
+     * Identical labelings must have normalized and adjusted values of 1, regardless of the values of the labels.
+     */
+    @Test
+    public void labelIdentity() {
+        final int[] a = {5, -3, 5, Integer.MIN_VALUE, -3, 5, Integer.MAX_VALUE};
+        final int[] b = {0, 1, 0, 2, 1, 0, 3};
+        final MutualInformation x = new MutualInformation(a, b);
+        for (MutualInformation.Normalization normalization : MutualInformation.Normalization.values()) {
+            Assert.assertEquals(1, x.normalizedMutualInformation(normalization), 1e-12);
+            Assert.assertEquals(1, x.adjustedMutualInformation(normalization), 1e-12);
+        }
+    }
+
+    /**
+     * The set form must be equivalent to labelings of membership.
+     */
+    @Test
+    public void setEquivalence() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2, 3, 7));
+        final Set<Integer> b = new HashSet<>(Arrays.asList(2, 3, 4, 8, 9));
+        final int[] aLabels = new int[12];
+        final int[] bLabels = new int[12];
+        final Set<Integer> world = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            world.add(i);
+            aLabels[i] = a.contains(i) ? 1 : 0;
+            bLabels[i] = b.contains(i) ? 1 : 0;
+        }
+        final MutualInformation x = new MutualInformation(a, b, world);
+        final MutualInformation y = new MutualInformation(aLabels, bLabels);
+        Assert.assertEquals(y.mutualInformation(), x.mutualInformation(), 1e-12);
+        Assert.assertEquals(y.normalizedMutualInformation(), x.normalizedMutualInformation(), 1e-12);
+        Assert.assertEquals(y.adjustedMutualInformation(), x.adjustedMutualInformation(), 1e-12);
+    }
+
+    /**
+     * The parallel constructor must agree with the sequential one.
+     */
+    @Test
+    public void parallel() {
+        final Random random = new Random(0);
+        final int[] a = new int[4 * MutualInformation.LEAF_SIZE + 17];
+        final int[] b = new int[a.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(300);
+            b[i] = random.nextBoolean() ? a[i] / 3 : random.nextInt(200);
+        }
+        final MutualInformation x = new MutualInformation(a, b);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            final MutualInformation y = new MutualInformation(a, b, pool);
+            Assert.assertEquals(x.mutualInformation(), y.mutualInformation(), 1e-10);
+            Assert.assertEquals(x.normalizedMutualInformation(), y.normalizedMutualInformation(), 1e-10);
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -3,6 +3,9 @@ package gr.james.measures;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.FloatBuffer;
 import java.util.*;
 
 public class PearsonTests {
@@ -62,6 +65,18 @@ public class PearsonTests {
         Assert.assertEquals(0.0, new Pearson(a, b, world).value(), 1e-8);
     }
 
+    /**
+     * Sets of different sizes.
+     */
+    @Test
+    public void asymmetricSet() {
+        final Set<Integer> a = new HashSet<>(Arrays.asList(1, 2));
+        final Set<Integer> b = new HashSet<>(Arrays.asList(1));
+        final Set<Integer> world = new HashSet<>(Arrays.asList(1, 2, 3, 4));
+        Assert.assertEquals(2.0 / Math.sqrt(12.0), new Pearson(a, b, world).value(), 1e-8);
+        Assert.assertEquals(new Pearson(b, a, world).value(), new Pearson(a, b, world).value(), 1e-8);
+    }
+
     /**
      * Some intermediate intersection for vectors.
      */
@@ -93,4 +108,80 @@ public class PearsonTests {
         final List<Double> b = Arrays.asList(2.0, 4.0, 4.0);
         Assert.assertEquals(new Pearson(a, b).value(), new Pearson(a.iterator(), b.iterator()).value(), 1e-8);
     }
+
+    /**
+     * The definition of {@link Pearson#Pearson(double[], double[])} must agree with
+     * {@link Pearson#Pearson(Iterable, Iterable)}.
+     */
+    @Test
+    public void arrayEquality() {
+        final Random random = new Random(0);
+        final double[] a = new double[1000];
+        final double[] b = new double[1000];
+        final List<Double> aList = new ArrayList<>();
+        final List<Double> bList = new ArrayList<>();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextGaussian();
+            b[i] = a[i] + random.nextGaussian();
+            aList.add(a[i]);
+            bList.add(b[i]);
+        }
+        Assert.assertEquals(new Pearson(aList, bList).value(), new Pearson(a, b).value(), Kernels.TOLERANCE);
+        Assert.assertEquals(new Pearson(aList, bList).value(),
+                new Pearson(DoubleBuffer.wrap(a), DoubleBuffer.wrap(b)).value(), Kernels.TOLERANCE);
+    }
+
+    /**
+     * The {@code float} forms of {@link Pearson} must agree with the {@code double} forms on the widened inputs.
+     */
+    @Test
+    public void floatEquality() {
+        final Random random = new Random(0);
+        final float[] a = new float[1001];
+        final float[] b = new float[1001];
+        final double[] aDouble = new double[a.length];
+        final double[] bDouble = new double[b.length];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (float) random.nextGaussian();
+            b[i] = (float) (a[i] + random.nextGaussian());
+            aDouble[i] = a[i];
+            bDouble[i] = b[i];
+        }
+        final double expected = new Pearson(aDouble, bDouble).value();
+        Assert.assertEquals(expected, new Pearson(a, b).value(), Kernels.TOLERANCE);
+        final double[] aSlice = Arrays.copyOfRange(aDouble, 1, 1001);
+        final double[] bSlice = Arrays.copyOfRange(bDouble, 0, 1000);
+        Assert.assertEquals(new Pearson(aSlice, bSlice).value(),
+                new Pearson(a, 1, b, 0, 1000).value(), Kernels.TOLERANCE);
+        Assert.assertEquals(expected, new Pearson(FloatBuffer.wrap(a), FloatBuffer.wrap(b)).value(), Kernels.TOLERANCE);
+        final FloatBuffer aDirect = ByteBuffer.allocateDirect(4 * a.length).asFloatBuffer().put(a);
+        final FloatBuffer bDirect = ByteBuffer.allocateDirect(4 * b.length).asFloatBuffer().put(b);
+        aDirect.flip();
+        bDirect.flip();
+        Assert.assertEquals(expected, new Pearson(aDirect, bDirect).value(), Kernels.TOLERANCE);
+        Assert.assertEquals(0, aDirect.position());
+    }
+
+    /**
+     * Slices of arrays and buffers must only consider the specified region.
+     */
+    @Test
+    public void slice() {
+        final double[] a = {9.0, 1.0, 2.0, 4.0};
+        final double[] b = {2.0, 4.0, 4.0, 9.0, 9.0};
+        final double expected = new Pearson(new double[]{1.0, 2.0, 4.0}, new double[]{2.0, 4.0, 4.0}).value();
+        Assert.assertEquals(expected, new Pearson(a, 1, b, 0, 3).value(), 0);
+        final DoubleBuffer aBuffer = DoubleBuffer.wrap(a, 1, 3);
+        final DoubleBuffer bBuffer = DoubleBuffer.wrap(b, 0, 3);
+        Assert.assertEquals(expected, new Pearson(aBuffer, bBuffer).value(), 0);
+        Assert.assertEquals(1, aBuffer.position());
+    }
+
+    /**
+     * Slices out of bounds must be rejected.
+     */
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void sliceOutOfBounds() {
+        new Pearson(new double[]{1.0, 2.0, 3.0}, 1, new double[]{1.0, 2.0, 3.0}, 0, 3);
+    }
 }
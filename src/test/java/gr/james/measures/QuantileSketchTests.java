@@ -0,0 +1,45 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class QuantileSketchTests {
+    /**
+     * The estimated ranks of a permutation must be within a few {@code n / k} of the true ranks, also after merging.
+     */
+    @Test
+    public void ranks() {
+        final int n = 100000;
+        final int k = 200;
+        final Random random = new Random(0);
+        final QuantileSketch sketch = new QuantileSketch(k);
+        final QuantileSketch other = new QuantileSketch(k);
+        for (int i = 0; i < n; i++) {
+            final int x = random.nextInt(n);
+            sketch.add(x);
+            other.add(n - 1 - x);
+        }
+        sketch.merge(other);
+        Assert.assertEquals(2 * n, sketch.count());
+        for (int x = 0; x < n; x += 997) {
+            Assert.assertEquals(2 * x + 1, sketch.rank(x), 3.0 * 2 * n / k);
+        }
+    }
+
+    /**
+     * Equal values must contribute half of their count to the mid-rank.
+     */
+    @Test
+    public void ties() {
+        final QuantileSketch sketch = new QuantileSketch(16);
+        for (int i = 0; i < 10; i++) {
+            sketch.add(1);
+            sketch.add(2);
+        }
+        Assert.assertEquals(5, sketch.rank(1), 0);
+        Assert.assertEquals(15, sketch.rank(2), 0);
+        Assert.assertEquals(20, sketch.rank(3), 0);
+    }
+}
@@ -0,0 +1,68 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class SimilarityJoinTests {
+    /**
+     * The join must report exactly the pairs that the brute force reports, with identical values.
+     */
+    @Test
+    public void bruteForceEquality() {
+        final Random random = new Random(0);
+        final List<Set<Integer>> sets = new ArrayList<>();
+        for (int k = 0; k < 300; k++) {
+            final Set<Integer> s = new HashSet<>();
+            final int size = random.nextInt(30);
+            final int base = random.nextInt(20);
+            for (int i = 0; i < size; i++) {
+                s.add(base + random.nextInt(40));
+            }
+            sets.add(s);
+        }
+        for (SimilarityJoin.Measure measure : SimilarityJoin.Measure.values()) {
+            for (double threshold : new double[]{0.3, 0.5, 0.8, 1.0}) {
+                final Map<List<Integer>, Double> expected = new HashMap<>();
+                for (int i = 0; i < sets.size(); i++) {
+                    for (int j = i + 1; j < sets.size(); j++) {
+                        if (sets.get(i).isEmpty() || sets.get(j).isEmpty()) {
+                            continue;
+                        }
+                        final double value = value(measure, sets.get(i), sets.get(j));
+                        if (value >= threshold) {
+                            expected.put(Arrays.asList(i, j), value);
+                        }
+                    }
+                }
+                final Map<List<Integer>, Double> actual = new ConcurrentHashMap<>();
+                new SimilarityJoin(sets, measure, threshold).join((a, b, value) -> {
+                    final Double previous = actual.put(Arrays.asList(Math.min(a, b), Math.max(a, b)), value);
+                    Assert.assertNull(previous);
+                });
+                Assert.assertEquals(expected, actual);
+            }
+        }
+    }
+
+    private static double value(SimilarityJoin.Measure measure, Set<Integer> a, Set<Integer> b) {
+        switch (measure) {
+            case JACCARD:
+                return new Jaccard(a, b).value();
+            case SORENSEN:
+                return new Sorensen(a, b).value();
+            default:
+                return new Overlap(a, b).value();
+        }
+    }
+
+    /**
+     * Thresholds outside {@code (0, 1]} must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void zeroThreshold() {
+        new SimilarityJoin(Collections.<Set<Integer>>emptyList(), SimilarityJoin.Measure.JACCARD, 0);
+    }
+}
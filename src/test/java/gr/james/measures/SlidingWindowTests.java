@@ -0,0 +1,63 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class SlidingWindowTests {
+    /**
+     * A count-based window must agree with the measures on the last samples.
+     */
+    @Test
+    public void count() {
+        final Random random = new Random(0);
+        final int size = 50;
+        final double[] a = new double[1000];
+        final double[] b = new double[1000];
+        final SlidingWindow window = SlidingWindow.ofCount(size);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = 1e6 + random.nextGaussian();
+            b[i] = a[i] + random.nextGaussian();
+            window.add(a[i], b[i]);
+            if (i >= 1) {
+                final int from = Math.max(0, i + 1 - size);
+                final int length = i + 1 - from;
+                Assert.assertEquals(length, window.size());
+                Assert.assertEquals(new Pearson(a, from, b, from, length).value(), window.pearson(), 1e-6);
+                Assert.assertEquals(new Cosine(a, from, b, from, length).value(), window.cosine(), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * A time-based window must evict the samples that are older than the duration.
+     */
+    @Test
+    public void time() {
+        final SlidingWindow window = SlidingWindow.ofDuration(10);
+        window.add(0, 1.0, 2.0);
+        window.add(5, 2.0, 4.0);
+        window.add(9, 4.0, 4.0);
+        Assert.assertEquals(3, window.size());
+        Assert.assertEquals(2 / Math.sqrt(7), window.pearson(), 1e-8);
+        window.add(10, 3.0, 1.0);
+        Assert.assertEquals(3, window.size());
+        Assert.assertEquals(new Pearson(Arrays.asList(2.0, 4.0, 3.0), Arrays.asList(4.0, 4.0, 1.0)).value(),
+                window.pearson(), 1e-8);
+        window.advance(100);
+        Assert.assertEquals(0, window.size());
+        Assert.assertTrue(Double.isNaN(window.pearson()));
+    }
+
+    /**
+     * Timestamps must be non-decreasing.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void decreasingTime() {
+        final SlidingWindow window = SlidingWindow.ofDuration(10);
+        window.add(5, 1.0, 1.0);
+        window.add(4, 1.0, 1.0);
+    }
+}
@@ -0,0 +1,85 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class SortedIntSetTests {
+    /**
+     * Duplicates are removed and elements are sorted.
+     */
+    @Test
+    public void construction() {
+        final SortedIntSet s = new SortedIntSet(5, 1, 3, 1, 5);
+        Assert.assertEquals(3, s.size());
+        Assert.assertArrayEquals(new int[]{1, 3, 5}, s.toArray());
+        Assert.assertTrue(s.contains(3));
+        Assert.assertFalse(s.contains(2));
+    }
+
+    /**
+     * The galloping and the merge intersections must agree for all size ratios.
+     */
+    @Test
+    public void intersection() {
+        final Random random = new Random(0);
+        for (int k = 0; k < 200; k++) {
+            final int[] x = new int[1 + random.nextInt(20)];
+            final int[] y = new int[1 + random.nextInt(2000)];
+            for (int i = 0; i < x.length; i++) {
+                x[i] = random.nextInt(4000);
+            }
+            for (int i = 0; i < y.length; i++) {
+                y[i] = random.nextInt(4000);
+            }
+            final int[] small = new SortedIntSet(x).toArray();
+            final int[] big = new SortedIntSet(y).toArray();
+            final int expected = SortedIntSet.merge(small, big);
+            Assert.assertEquals(expected, SortedIntSet.gallop(small, big));
+            Assert.assertEquals(expected, new SortedIntSet(x).intersection(new SortedIntSet(y)));
+            Assert.assertEquals(expected, new SortedIntSet(y).intersection(new SortedIntSet(x)));
+        }
+    }
+
+    /**
+     * Measures on sorted sets must be identical to the ones on hash sets.
+     */
+    @Test
+    public void measures() {
+        final Random random = new Random(0);
+        final int[] a = new int[100];
+        final int[] b = new int[5000];
+        final Set<Integer> aSet = new HashSet<>();
+        final Set<Integer> bSet = new HashSet<>();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(10000);
+            aSet.add(a[i]);
+        }
+        for (int i = 0; i < b.length; i++) {
+            b[i] = random.nextInt(10000);
+            bSet.add(b[i]);
+        }
+        final SortedIntSet x = new SortedIntSet(a);
+        final SortedIntSet y = new SortedIntSet(b);
+        Assert.assertEquals(new Jaccard(aSet, bSet).value(), new Jaccard(x, y).value(), 0);
+        Assert.assertEquals(new Sorensen(aSet, bSet).value(), new Sorensen(x, y).value(), 0);
+        Assert.assertEquals(new Overlap(aSet, bSet).value(), new Overlap(x, y).value(), 0);
+        Assert.assertEquals(new Cosine(aSet, bSet).value(), new Cosine(x, y).value(), 0);
+    }
+
+    /**
+     * The {@code long} form must agree with the {@code int} form.
+     */
+    @Test
+    public void longEquality() {
+        final SortedLongSet a = new SortedLongSet(1L << 40, 3, 7, 1L << 41);
+        final SortedLongSet b = new SortedLongSet(3, 1L << 41);
+        Assert.assertEquals(2, a.intersection(b));
+        Assert.assertEquals(2.0 / 4.0, new Jaccard(a, b).value(), 1e-8);
+        Assert.assertEquals(new Jaccard(new SortedIntSet(1, 3, 7, 9), new SortedIntSet(3, 9)).value(),
+                new Jaccard(a, b).value(), 0);
+    }
+}
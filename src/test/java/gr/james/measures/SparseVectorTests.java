@@ -0,0 +1,79 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class SparseVectorTests {
+    /**
+     * Sparse {@link Cosine} and {@link Pearson} must agree with their dense equivalents.
+     */
+    @Test
+    public void denseEquality() {
+        final Random random = new Random(0);
+        for (int k = 0; k < 50; k++) {
+            final int dimension = 1 + random.nextInt(500);
+            final double[] a = new double[dimension];
+            final double[] b = new double[dimension];
+            for (int i = 0; i < dimension; i++) {
+                if (random.nextInt(10) == 0) {
+                    a[i] = random.nextGaussian();
+                }
+                if (random.nextInt(10) == 0) {
+                    b[i] = random.nextGaussian() + 3;
+                }
+            }
+            a[random.nextInt(dimension)] = 1;
+            b[random.nextInt(dimension)] = 1;
+            final SparseVector x = sparse(a);
+            final SparseVector y = sparse(b);
+            Assert.assertEquals(new Cosine(a, b).value(), new Cosine(x, y).value(), 1e-12);
+            final double pearson = new Pearson(a, b).value();
+            if (Double.isNaN(pearson)) {
+                Assert.assertTrue(Double.isNaN(new Pearson(x, y).value()));
+            } else {
+                Assert.assertEquals(pearson, new Pearson(x, y).value(), 1e-12);
+            }
+        }
+    }
+
+    /**
+     * Access to the components.
+     */
+    @Test
+    public void get() {
+        final SparseVector v = new SparseVector(10, new int[]{2, 7}, new double[]{1.5, -2.0});
+        Assert.assertEquals(2, v.stored());
+        Assert.assertEquals(1.5, v.get(2), 0);
+        Assert.assertEquals(0.0, v.get(3), 0);
+        Assert.assertEquals(-2.0, v.get(7), 0);
+    }
+
+    /**
+     * Unsorted indices must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void unsorted() {
+        new SparseVector(10, new int[]{7, 2}, new double[]{1.5, -2.0});
+    }
+
+    private static SparseVector sparse(double[] dense) {
+        int stored = 0;
+        for (double x : dense) {
+            if (x != 0) {
+                stored++;
+            }
+        }
+        final int[] indices = new int[stored];
+        final double[] values = new double[stored];
+        int k = 0;
+        for (int i = 0; i < dense.length; i++) {
+            if (dense[i] != 0) {
+                indices[k] = i;
+                values[k++] = dense[i];
+            }
+        }
+        return new SparseVector(dense.length, indices, values);
+    }
+}
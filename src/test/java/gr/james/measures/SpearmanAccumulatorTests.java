@@ -0,0 +1,77 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class SpearmanAccumulatorTests {
+    /**
+     * The estimate must be close to the exact value on a long stream with ties.
+     */
+    @Test
+    public void stream() {
+        final Random random = new Random(0);
+        final double[] a = new double[200000];
+        final double[] b = new double[a.length];
+        final SpearmanAccumulator accumulator = new SpearmanAccumulator();
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextInt(10) == 0 ? Math.round(random.nextGaussian()) : random.nextGaussian();
+            b[i] = Math.exp(a[i]) + random.nextGaussian();
+            accumulator.add(a[i], b[i]);
+        }
+        Assert.assertEquals(a.length, accumulator.count());
+        Assert.assertEquals(new Spearman(a, b).value(), accumulator.value(), 0.005);
+    }
+
+    /**
+     * Until the first {@code k} pairs have been added, the estimate must be exact.
+     */
+    @Test
+    public void exact() {
+        final double[] a = {1, 2, 2, 3, 2};
+        final double[] b = {4, 1, 3, 2, 1};
+        final SpearmanAccumulator accumulator = new SpearmanAccumulator();
+        for (int i = 0; i < a.length; i++) {
+            accumulator.add(a[i], b[i]);
+        }
+        Assert.assertEquals(new Spearman(a, b).value(), accumulator.value(), 1e-12);
+    }
+
+    /**
+     * Merging accumulators of the parts of a stream, including a part shorter than {@code k}, must estimate the value
+     * of the whole stream.
+     */
+    @Test
+    public void merge() {
+        final Random random = new Random(0);
+        final double[] a = new double[100000];
+        final double[] b = new double[a.length];
+        final SpearmanAccumulator first = new SpearmanAccumulator(100);
+        final SpearmanAccumulator second = new SpearmanAccumulator(100);
+        final SpearmanAccumulator third = new SpearmanAccumulator(100);
+        for (int i = 0; i < a.length; i++) {
+            a[i] = random.nextDouble();
+            b[i] = a[i] * a[i] + random.nextDouble();
+            if (i < 40000) {
+                first.add(a[i], b[i]);
+            } else if (i < a.length - 50) {
+                second.add(a[i], b[i]);
+            } else {
+                third.add(a[i], b[i]);
+            }
+        }
+        first.merge(second);
+        first.merge(third);
+        Assert.assertEquals(a.length, first.count());
+        Assert.assertEquals(new Spearman(a, b).value(), first.value(), 0.01);
+    }
+
+    /**
+     * Accumulators with different accuracy parameters cannot be merged.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void mergeMismatch() {
+        new SpearmanAccumulator(100).merge(new SpearmanAccumulator(200));
+    }
+}
@@ -46,4 +46,33 @@ public class SpearmanTests {
         final List<Integer> b = Arrays.asList(1, 2, 4, 3);
         Assert.assertEquals(new Spearman(b, a).value(), new Spearman(a, b).value(), 1e-8);
     }
+
+    /**
+     * Scores must be converted to ranks before correlating.
+     */
+    @Test
+    public void scores() {
+        final double[] a = {10.0, 20.0, 30.0, 40.0};
+        final double[] b = {0.1, 0.2, 0.4, 0.3};
+        Assert.assertEquals(0.8, new Spearman(a, b).value(), 1e-8);
+    }
+
+    /**
+     * Tied scores receive the average of their ranks.
+     */
+    @Test
+    public void ties() {
+        final double[] a = {1.0, 2.0, 2.0, 3.0};
+        final double[] b = {1.0, 2.0, 3.0, 4.0};
+        // Ranks of a are 1, 2.5, 2.5, 4
+        Assert.assertEquals(4.5 / Math.sqrt(4.5 * 5.0), new Spearman(a, b).value(), 1e-8);
+    }
+
+    /**
+     * Missing elements must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void missing() {
+        new Spearman(Arrays.asList(1, 2, 3), Arrays.asList(1, 2));
+    }
 }
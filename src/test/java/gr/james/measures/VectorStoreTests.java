@@ -0,0 +1,84 @@
+package gr.james.measures;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class VectorStoreTests {
+    /**
+     * The results must be the vectors with the highest {@link Cosine} in descending order.
+     */
+    @Test
+    public void topK() {
+        final Random random = new Random(0);
+        final int dimension = 17;
+        final double[][] vectors = new double[10003][dimension];
+        final VectorStore store = new VectorStore(dimension);
+        for (double[] v : vectors) {
+            for (int i = 0; i < dimension; i++) {
+                v[i] = random.nextGaussian();
+            }
+            store.add(v);
+        }
+        final double[] query = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            query[i] = random.nextGaussian();
+        }
+        final double[] expected = new double[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            expected[i] = new Cosine(query, vectors[i]).value();
+        }
+        final int[] order = IntStream.range(0, vectors.length).boxed()
+                .sorted(Comparator.comparingDouble(i -> -expected[i]))
+                .mapToInt(Integer::intValue).toArray();
+        final int k = 10;
+        final VectorStore.Result sequential = store.query(query, k);
+        final VectorStore.Result parallel = store.query(query, k, ForkJoinPool.commonPool());
+        Assert.assertEquals(k, sequential.size());
+        for (int r = 0; r < k; r++) {
+            Assert.assertEquals(order[r], sequential.id(r));
+            Assert.assertEquals(order[r], parallel.id(r));
+            Assert.assertEquals(expected[order[r]], sequential.score(r), 1e-12);
+        }
+    }
+
+    /**
+     * Fewer results than {@code k} when the store is small.
+     */
+    @Test
+    public void small() {
+        final VectorStore store = new VectorStore(2);
+        store.add(new double[]{1, 0});
+        store.add(new double[]{0, 1});
+        final VectorStore.Result result = store.query(new double[]{1, 1}, 5);
+        Assert.assertEquals(2, result.size());
+        Assert.assertEquals(Math.sqrt(0.5), result.score(0), 1e-12);
+        Assert.assertEquals(Arrays.asList(0, 1), Arrays.asList(Math.min(result.id(0), result.id(1)),
+                Math.max(result.id(0), result.id(1))));
+    }
+
+    /**
+     * A {@code k} far larger than the store must not allocate for {@code k} results, sequentially or in parallel.
+     */
+    @Test
+    public void largeK() {
+        final VectorStore store = new VectorStore(2);
+        Assert.assertEquals(0, store.query(new double[]{1, 1}, Integer.MAX_VALUE).size());
+        store.add(new double[]{1, 0});
+        Assert.assertEquals(1, store.query(new double[]{1, 1}, Integer.MAX_VALUE).size());
+        Assert.assertEquals(1, store.query(new double[]{1, 1}, Integer.MAX_VALUE, ForkJoinPool.commonPool()).size());
+    }
+
+    /**
+     * Zero vectors must be rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void zero() {
+        new VectorStore(2).add(new double[]{0, 0});
+    }
+}